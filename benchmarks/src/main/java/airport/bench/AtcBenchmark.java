@@ -0,0 +1,62 @@
+package airport.bench;
+
+import airport.AirTrafficController;
+import airport.Airport;
+import airport.GateManager;
+import airport.LandingClearance;
+import airport.Plane;
+import airport.Runway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One landing through the controller: queue, grant with gate reservation, dock, release.
+// The callback form is used so the measurement is the controller's own work, not thread
+// hand-off.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtcBenchmark {
+    private AirTrafficController atc;
+    private GateManager gateManager;
+    private Plane plane;
+    private LandingClearance cleared;
+    private Runway granted;
+
+    @Setup
+    public void setUp() {
+        Airport airport = Fixtures.airport(4);
+        atc = airport.getAtc();
+        gateManager = airport.getGateManager();
+        plane = Fixtures.planes(airport, 1, 1)[0];
+    }
+
+    @Benchmark
+    public Runway landAndRelease() {
+        atc.requestToLand(plane, gateManager, c -> cleared = c);
+        LandingClearance c = cleared;
+        gateManager.releaseGate(gateManager.dock(c.gate()));
+        atc.releaseRunway(plane, c.runway());
+        return c.runway();
+    }
+
+    @Benchmark
+    public Runway takeoffAndRelease() {
+        atc.requestToTakeoff(plane, r -> granted = r);
+        Runway r = granted;
+        atc.releaseRunway(plane, r);
+        return r;
+    }
+}
@@ -0,0 +1,92 @@
+package airport.bench;
+
+import airport.AirTrafficController;
+import airport.Airport;
+import airport.Gate;
+import airport.GateManager;
+import airport.LandingClearance;
+import airport.Plane;
+import airport.Runway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Emergencies and queue summaries with 'depth' planes holding. Every gate is taken, so
+// the queue only moves when the benchmark lets one plane through. Each cycle adds a
+// plane at the back, declares its emergency and lands it, leaving the depth unchanged.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmergencyBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int depth;
+
+    private AirTrafficController atc;
+    private GateManager gateManager;
+    private Gate occupied;
+    private Plane[] arrivals;
+    private int next = 0;
+    private LandingClearance cleared;
+
+    private LegacyLandingQueue legacy;
+
+    @Setup
+    public void setUp() {
+        Airport airport = Fixtures.airport(1);
+        atc = airport.getAtc();
+        gateManager = airport.getGateManager();
+        Plane[] holding = Fixtures.planes(airport, depth, 1);
+        occupied = gateManager.tryRequestGate(holding[0]);
+        for (Plane p : holding) atc.requestToLand(p, gateManager, r -> {});
+        arrivals = Fixtures.planes(airport, 1024, depth + 1);
+
+        legacy = new LegacyLandingQueue();
+        for (Plane p : holding) legacy.add(p);
+    }
+
+    @Benchmark
+    public Runway emergencyCycle() {
+        Plane plane = arrivals[next++ & (arrivals.length - 1)];
+        atc.requestToLand(plane, gateManager, c -> cleared = c);
+        atc.notifyEmergency(plane, gateManager);
+
+        // Free the gate so the emergency is cleared, dock it, then clear the runway
+        gateManager.releaseGate(occupied);
+        atc.gateReleased();
+        LandingClearance c = cleared;
+        occupied = gateManager.dock(c.gate());
+        atc.releaseRunway(plane, c.runway());
+        return c.runway();
+    }
+
+    @Benchmark
+    public Plane legacyEmergencyCycle() {
+        Plane plane = arrivals[next++ & (arrivals.length - 1)];
+        legacy.add(plane);
+        legacy.notifyEmergency(plane);
+        return legacy.poll();
+    }
+
+    @Benchmark
+    public String queueSummary() {
+        return atc.queueSummary();
+    }
+
+    @Benchmark
+    public String legacyQueueSummary() {
+        return legacy.queueSummary();
+    }
+}
@@ -0,0 +1,35 @@
+package airport.bench;
+
+import airport.AirTrafficController;
+import airport.Airport;
+import airport.AirportLogger;
+import airport.EventScheduler;
+import airport.FuelMonitor;
+import airport.GateManager;
+import airport.GroundOperations;
+import airport.Plane;
+import airport.RefuelDispatcher;
+import airport.StatisticsManager;
+
+// Builds airports for the benchmarks. Everything runs on a discrete-event clock that is
+// never advanced, so no background threads are started and nothing sleeps.
+final class Fixtures {
+    private Fixtures() {}
+
+    static Airport airport(int gates) {
+        AirportLogger.setLevel(AirportLogger.Level.OFF);
+        EventScheduler sim = new EventScheduler();
+        StatisticsManager stats = new StatisticsManager();
+        RefuelDispatcher refuelDispatcher = new RefuelDispatcher(1, gates, stats, sim);
+        GroundOperations groundOperations = new GroundOperations(new int[] {gates, gates, gates}, refuelDispatcher,
+                stats, sim, sim);
+        return new Airport(sim, stats, new AirTrafficController(stats, sim), new GateManager(gates), refuelDispatcher,
+                groundOperations, FuelMonitor.discreteEvent(sim), null);
+    }
+
+    static Plane[] planes(Airport airport, int count, int firstId) {
+        Plane[] planes = new Plane[count];
+        for (int i = 0; i < count; i++) planes[i] = new Plane(firstId + i, airport);
+        return planes;
+    }
+}
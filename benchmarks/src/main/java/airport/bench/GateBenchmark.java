@@ -0,0 +1,70 @@
+package airport.bench;
+
+import airport.Airport;
+import airport.Gate;
+import airport.GateManager;
+import airport.Plane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Gate claim/release and the "any free?" check under contention. Run with -t to set the
+// thread count (the published baseline uses 1, 4, 16 and 64). With fewer gates than
+// threads, requestGate parks planes on the free-gate index and the legacy code queues
+// them on its fair semaphore.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GateBenchmark {
+    @Param({"6", "64"})
+    public int gates;
+
+    private GateManager gateManager;
+    private LegacyGateManager legacy;
+    private Plane plane;
+
+    @Setup
+    public void setUp() {
+        Airport airport = Fixtures.airport(gates);
+        gateManager = airport.getGateManager();
+        legacy = new LegacyGateManager(gates);
+        plane = Fixtures.planes(airport, 1, 1)[0];
+    }
+
+    @Benchmark
+    public Gate requestRelease() {
+        Gate g = gateManager.requestGate(plane);
+        gateManager.releaseGate(g);
+        return g;
+    }
+
+    @Benchmark
+    public boolean hasFreeGate() {
+        return gateManager.hasFreeGate();
+    }
+
+    @Benchmark
+    public LegacyGateManager.LegacyGate legacyRequestRelease() {
+        LegacyGateManager.LegacyGate g = legacy.requestGate();
+        legacy.releaseGate(g);
+        return g;
+    }
+
+    @Benchmark
+    public boolean legacyHasFreeGate() {
+        return legacy.hasFreeGate();
+    }
+}
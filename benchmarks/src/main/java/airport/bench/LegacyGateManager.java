@@ -0,0 +1,66 @@
+package airport.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// Gate allocation as it was before FreeGateIndex: a fair semaphore plus a linear scan
+// under one monitor, over gates whose state sits behind their own monitors. Logging is
+// left out, as the benchmarks run with it switched off. Kept only as a comparison point
+// for GateBenchmark.
+final class LegacyGateManager {
+    // The old airport.Gate, which the simulator's Gate no longer matches
+    static final class LegacyGate {
+        private final int gateId;
+        private boolean occupied = false;
+
+        LegacyGate(int id) { this.gateId = id; }
+
+        synchronized boolean isOccupied() { return occupied; }
+
+        synchronized void release() { occupied = false; }
+
+        int getGateId() { return gateId; }
+
+        void setOccupied(boolean b) { this.occupied = b; }
+    }
+
+    private final Semaphore gateSlots;
+    private final List<LegacyGate> gates = new ArrayList<>();
+
+    LegacyGateManager(int gateCount) {
+        this.gateSlots = new Semaphore(gateCount, true);
+        for (int i = 1; i <= gateCount; i++) gates.add(new LegacyGate(i));
+    }
+
+    LegacyGate requestGate() {
+        try {
+            gateSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (gates) {
+            for (LegacyGate g : gates) {
+                if (!g.isOccupied()) {
+                    g.setOccupied(true);
+                    return g;
+                }
+            }
+        }
+        throw new IllegalStateException("No free gates after semaphore acquire");
+    }
+
+    void releaseGate(LegacyGate gate) {
+        gate.release();
+        gateSlots.release();
+    }
+
+    boolean hasFreeGate() {
+        synchronized (gates) {
+            for (LegacyGate g : gates) {
+                if (!g.isOccupied()) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package airport.bench;
+
+import airport.Plane;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+// The landing queue as it was before the indexed heap: a PriorityBlockingQueue where an
+// emergency is a linear search, remove and re-add, and the summary sorts a full copy.
+// Kept only as a comparison point for EmergencyBenchmark.
+final class LegacyLandingQueue {
+    private static final class PlaneWrapper {
+        final Plane plane;
+        final int arrivalSequence;
+        int emergencySequence = -1;
+
+        PlaneWrapper(Plane plane, int arrivalSequence) {
+            this.plane = plane;
+            this.arrivalSequence = arrivalSequence;
+        }
+    }
+
+    private final PriorityBlockingQueue<PlaneWrapper> waitingQueue = new PriorityBlockingQueue<>(10,
+            (a, b) -> {
+                boolean aEmerg = a.emergencySequence >= 0;
+                boolean bEmerg = b.emergencySequence >= 0;
+                if (aEmerg != bEmerg) return Boolean.compare(!aEmerg, !bEmerg);
+                if (aEmerg) return Integer.compare(a.emergencySequence, b.emergencySequence);
+                return Integer.compare(a.arrivalSequence, b.arrivalSequence);
+            });
+    private final Object lock = new Object();
+    private int arrivalCounter = 0;
+    private int emergencyCounter = 0;
+
+    void add(Plane plane) {
+        synchronized (lock) {
+            waitingQueue.add(new PlaneWrapper(plane, arrivalCounter++));
+        }
+    }
+
+    Plane poll() {
+        synchronized (lock) {
+            PlaneWrapper w = waitingQueue.poll();
+            return w == null ? null : w.plane;
+        }
+    }
+
+    void notifyEmergency(Plane plane) {
+        synchronized (lock) {
+            PlaneWrapper target = null;
+            for (PlaneWrapper w : waitingQueue) {
+                if (w.plane == plane) {
+                    target = w;
+                    break;
+                }
+            }
+            if (target != null && target.emergencySequence < 0) {
+                waitingQueue.remove(target);
+                target.emergencySequence = emergencyCounter++;
+                waitingQueue.add(target);
+            }
+        }
+    }
+
+    String queueSummary() {
+        if (waitingQueue.isEmpty()) return "none";
+        StringBuilder sb = new StringBuilder();
+        List<PlaneWrapper> sortedList = new ArrayList<>(waitingQueue);
+        sortedList.sort(waitingQueue.comparator());
+        for (PlaneWrapper w : sortedList) {
+            sb.append(w.plane.getName());
+            if (w.emergencySequence >= 0) sb.append("(E)");
+            sb.append(" ");
+        }
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,65 @@
+package airport.bench;
+
+import airport.AirportLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Producer-side cost of AirportLogger.log. Lines go to /dev/null through the normal
+// writer thread; with DROP the producers never wait on it, with BLOCK they are held to
+// the writer's pace once the buffer fills.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+    @Param({"OFF", "INFO"})
+    public AirportLogger.Level level;
+
+    @Param({"DROP", "BLOCK"})
+    public AirportLogger.OverflowPolicy overflow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AirportLogger.toFile(Path.of("/dev/null"));
+        AirportLogger.setOverflowPolicy(overflow, 65_536);
+        AirportLogger.setLevel(level);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AirportLogger.flush();
+        AirportLogger.setLevel(AirportLogger.Level.OFF);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void logSupplier() {
+        int id = ThreadLocalRandom.current().nextInt(1000);
+        AirportLogger.log("ATC", () -> "Plane-" + id + " granted runway access (Runway 1).");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logSupplier4Threads() {
+        int id = ThreadLocalRandom.current().nextInt(1000);
+        AirportLogger.log("ATC", () -> "Plane-" + id + " granted runway access (Runway 1).");
+    }
+}
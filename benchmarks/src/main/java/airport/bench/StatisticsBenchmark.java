@@ -0,0 +1,45 @@
+package airport.bench;
+
+import airport.StatisticsManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Recording into one shared StatisticsManager from one and from many threads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+    private final StatisticsManager stats = new StatisticsManager();
+
+    @Benchmark
+    @Threads(1)
+    public void recordWaitingTime() {
+        stats.recordWaitingTime(ThreadLocalRandom.current().nextInt(10_000));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordWaitingTime8Threads() {
+        stats.recordWaitingTime(ThreadLocalRandom.current().nextInt(10_000));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordPassengers8Threads() {
+        stats.recordPassengers(35);
+    }
+}
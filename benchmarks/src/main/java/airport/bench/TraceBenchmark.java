@@ -0,0 +1,68 @@
+package airport.bench;
+
+import airport.SimulationClock;
+import airport.TraceEvent;
+import airport.TraceWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one TraceWriter.record call, with tracing off and writing to a mapped file
+// in the temp directory. Each iteration writes tens of millions of records, so chunk
+// mapping is part of the measured cost.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceBenchmark {
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private Path file;
+    private TraceWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (!enabled) return;
+        file = Files.createTempFile("airport-trace", ".bin");
+        writer = TraceWriter.open(file, SimulationClock.WALL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (writer == null) return;
+        writer.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record() {
+        TraceWriter.record(TraceEvent.DOCKED, ThreadLocalRandom.current().nextInt(1000), 3);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record4Threads() {
+        TraceWriter.record(TraceEvent.DOCKED, ThreadLocalRandom.current().nextInt(1000), 3);
+    }
+}
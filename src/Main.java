@@ -1,37 +1,387 @@
 import airport.*;
-import java.util.Random;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Main {
+    // Taken from the checkpoint by --resume, so giving them as well is an error
+    private static final Set<String> CHECKPOINTED_OPTIONS = Set.of("--planes", "--gates", "--trucks", "--crews",
+            "--interarrival", "--runways", "--separation", "--schedule", "--seed", "--holding", "--holding-policy",
+            "--origin-delay");
+
+    // Usage: Main [--engine=threads|des|fleet] [--threads=platform|virtual] [--planes=N] [--gates=N] [--trucks=N]
+    //             [--interarrival=MS] [--quiet] [--log-level=debug|info|warn|off] [--log-file=PATH]
+    //             [--log-overflow=block|drop] [--runways=mixed,arrivals,departures,...] [--separation=MS]
+    //             [--schedule=CSV] [--seed=N] [--crews=N | --crews=DISEMBARK,CLEANING,EMBARK]
+    //             [--time-scale=FACTOR] [--trace=PATH]
+    //             [--holding=N] [--holding-policy=divert|hold-at-origin|shed-by-fuel] [--origin-delay=MS]
+    //             [--airports=N] [--legs=N] [--flight-time=MS]
+    //             [--checkpoint=PATH --checkpoint-at=MS] [--resume=PATH] [--decisions=PATH | --replay=PATH]
+    // --holding caps the landing queue at N planes; later arrivals are diverted, held at their
+    // origin for --origin-delay (default 60000) before trying again, or the plane with the most
+    // fuel is shed to its alternate. Planes with under 35 fuel are never diverted or shed: they
+    // join holding over the cap. Without it holding is unbounded.
+    // --time-scale runs the threaded model FACTOR times faster than real time (e.g. 100 or 1000);
+    // all reported times are simulated. The other engines and --airports run on simulated time and reject it.
+    // --engine=fleet runs the discrete-event model on primitive arrays (FleetSimulation) for
+    // million-flight schedules; it does not log individual planes.
+    // --airports runs N fleet airports as an AirportNetwork, one thread each, with --planes
+    // flights starting at every airport. Each flight flies --legs onward legs (default 2) to
+    // random other airports, --flight-time apart per hop (default 1800000), and planes that
+    // divert or reach bingo fuel in holding go on to the next airport instead of leaving,
+    // where they land as emergencies.
+    // With --engine=fleet, --checkpoint saves the whole run once simulated time reaches
+    // --checkpoint-at and carries on; --resume continues such a checkpoint, taking the airport
+    // and traffic from it, so it rejects the options that set them. --decisions logs every decision and random draw, and --replay
+    // runs again from a log (or from a checkpoint of the logged run), stopping at the first
+    // decision that differs.
+    // --trace writes every lifecycle event to a binary file; convert it with: java -cp ... airport.TraceReader PATH [OUT.csv]
+    // With --schedule, arrivals, fuel and passengers come from the file and --planes/--interarrival are ignored;
+    // a fuel or passenger count of -1 lets the plane pick its own.
+    // Generate one with: java -cp ... airport.ScheduleGenerator OUT.csv [flights] [meanInterArrivalMs] [seed]
     public static void main(String[] args) {
+        String engine = "threads";
+        ExecutionMode threads = ExecutionMode.PLATFORM;
+        int planeCount = 6;
+        int gateCount = 3;
+        int truckCount = 1;
+        int[] crews = null; // default: one crew of each kind per gate
+        int interArrival = 0; // 0 = the original demo pattern
+        boolean quiet = false;
+        String[] runwayModes = {"mixed"};
+        long separation = 0;
+        Path schedule = null;
+        Long seed = null; // null = a different run every time
+        double timeScale = 1;
+        Path tracePath = null;
+        int holding = 0; // 0 = unbounded
+        HoldingPolicy holdingPolicy = HoldingPolicy.DIVERT;
+        long originDelay = 60_000;
+        int airports = 0; // 0 = a single airport
+        int legs = 2;
+        long flightTime = 1_800_000;
+        Path checkpoint = null;
+        long checkpointAt = -1;
+        Path resume = null;
+        Path decisions = null;
+        Path replay = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) engine = arg.substring(9);
+            else if (arg.startsWith("--threads=")) threads = ExecutionMode.parse(arg.substring(10));
+            else if (arg.startsWith("--planes=")) planeCount = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--gates=")) gateCount = Integer.parseInt(arg.substring(8));
+            else if (arg.startsWith("--trucks=")) truckCount = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--interarrival=")) interArrival = Integer.parseInt(arg.substring(15));
+            else if (arg.equals("--quiet")) quiet = true;
+            else if (arg.startsWith("--runways=")) runwayModes = arg.substring(10).split(",");
+            else if (arg.startsWith("--separation=")) separation = Long.parseLong(arg.substring(13));
+            else if (arg.startsWith("--schedule=")) schedule = Path.of(arg.substring(11));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--crews=")) crews = parseCrews(arg.substring(8));
+            else if (arg.startsWith("--time-scale=")) timeScale = Double.parseDouble(arg.substring(13));
+            else if (arg.startsWith("--trace=")) tracePath = Path.of(arg.substring(8));
+            else if (arg.startsWith("--holding=")) holding = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--holding-policy=")) holdingPolicy = HoldingPolicy.parse(arg.substring(17));
+            else if (arg.startsWith("--origin-delay=")) originDelay = Long.parseLong(arg.substring(15));
+            else if (arg.startsWith("--airports=")) airports = Integer.parseInt(arg.substring(11));
+            else if (arg.startsWith("--legs=")) legs = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--flight-time=")) flightTime = Long.parseLong(arg.substring(14));
+            else if (arg.startsWith("--checkpoint=")) checkpoint = Path.of(arg.substring(13));
+            else if (arg.startsWith("--checkpoint-at=")) checkpointAt = Long.parseLong(arg.substring(16));
+            else if (arg.startsWith("--resume=")) resume = Path.of(arg.substring(9));
+            else if (arg.startsWith("--decisions=")) decisions = Path.of(arg.substring(12));
+            else if (arg.startsWith("--replay=")) replay = Path.of(arg.substring(9));
+            else if (arg.startsWith("--log-level=")) AirportLogger.setLevel(AirportLogger.Level.valueOf(arg.substring(12).toUpperCase()));
+            else if (arg.startsWith("--log-file=")) AirportLogger.toFile(Path.of(arg.substring(11)));
+            else if (arg.startsWith("--log-overflow=")) AirportLogger.setOverflowPolicy(
+                    AirportLogger.OverflowPolicy.valueOf(arg.substring(15).toUpperCase()), 65_536);
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+        if (quiet) AirportLogger.setEnabled(false);
+        if ((checkpoint != null || resume != null || decisions != null || replay != null) && !engine.equals("fleet")) {
+            throw new IllegalArgumentException("Checkpoints and decision logs need --engine=fleet");
+        }
+        if ((checkpoint == null) != (checkpointAt < 0)) {
+            throw new IllegalArgumentException("--checkpoint and --checkpoint-at go together");
+        }
+        if (resume != null) {
+            for (String arg : args) {
+                String option = arg.split("=", 2)[0];
+                if (CHECKPOINTED_OPTIONS.contains(option)) {
+                    throw new IllegalArgumentException(option + " cannot be combined with --resume, which takes the "
+                            + "airport and traffic from the checkpoint");
+                }
+            }
+        }
+        if (decisions != null && replay != null) {
+            throw new IllegalArgumentException("--decisions and --replay cannot be combined");
+        }
+        if (timeScale != 1 && (!engine.equals("threads") || airports > 0)) {
+            throw new IllegalArgumentException("--time-scale only applies to --engine=threads, not "
+                    + (airports > 0 ? "--airports" : "--engine=" + engine) + ", which runs on simulated time");
+        }
+
         System.out.println("=== Asia Pacific Airport Simulation Start ===");
 
-        AirTrafficController atc = new AirTrafficController();
-        GateManager gateManager = new GateManager(3);
-        RefuelTruck refuelTruck = new RefuelTruck();
-        StatisticsManager stats = new StatisticsManager();
+        if (airports > 0) {
+            if (schedule != null || tracePath != null) {
+                throw new IllegalArgumentException("--airports does not support --schedule or --trace");
+            }
+            runNetwork(airports, legs, flightTime, planeCount, gateCount, truckCount, crews, interArrival, runwayModes,
+                    separation, seed, holding, holdingPolicy, originDelay);
+            return;
+        }
 
-        Random rand = new Random();
-        Thread[] planes = new Thread[6];
+        if (engine.equals("fleet")) {
+            runFleet(planeCount, gateCount, truckCount, crews, interArrival, runwayModes, separation, schedule, seed,
+                    tracePath, holding, holdingPolicy, originDelay, checkpoint, checkpointAt, resume, decisions, replay);
+            return;
+        }
 
-        for (int i = 0; i < planes.length; i++) {
-            int delay;
-            if (i < 4) {
-                delay = 300; // first 4 planes arrive almost simultaneously
+        boolean discreteEvent = engine.equals("des");
+        EventScheduler sim = discreteEvent ? new EventScheduler() : null;
+        if (!discreteEvent && timeScale != 1) warmUp(threads);
+        SimulationClock clock = discreteEvent ? sim : timeScale == 1 ? SimulationClock.WALL : new ScaledClock(timeScale);
+        if (clock instanceof ScaledClock) AirportLogger.useVirtualTime(clock::now);
+        TraceWriter trace = tracePath == null ? null : TraceWriter.open(tracePath, clock);
+
+        StatisticsManager stats = new StatisticsManager(planeCount);
+        List<Runway> runways = buildRunways(runwayModes, separation);
+        AirTrafficController atc = new AirTrafficController(stats, clock, runways);
+        if (holding > 0) atc.setHoldingPolicy(holdingPolicy, holding, originDelay);
+        GateManager gateManager = new GateManager(gateCount);
+        RefuelDispatcher refuelDispatcher = new RefuelDispatcher(truckCount, gateCount, stats, clock);
+        if (crews == null) crews = GroundOperations.defaultCrews(gateCount);
+        Scheduler scheduler = discreteEvent ? sim : Scheduler.delayed(ForkJoinPool.commonPool(), clock);
+        GroundOperations groundOperations = new GroundOperations(crews, refuelDispatcher, stats, clock, scheduler);
+        FuelMonitor fuelMonitor = discreteEvent ? FuelMonitor.discreteEvent(sim) : FuelMonitor.threaded(clock);
+        ExecutorService executor = discreteEvent ? null : threads.newExecutor();
+        Airport airport = seed == null
+                ? new Airport(clock, stats, atc, gateManager, refuelDispatcher, groundOperations, fuelMonitor, executor)
+                : new Airport(clock, stats, atc, gateManager, refuelDispatcher, groundOperations, fuelMonitor, executor,
+                        seed);
+        AirportMonitor.register(airport, "main"); // live gauges for jconsole/VisualVM
+
+        long planes;
+        try (ScheduleReader reader = schedule == null ? null : new ScheduleReader(schedule)) {
+            Iterator<ScheduledFlight> arrivals = reader != null ? reader
+                    : ArrivalFeed.demo(planeCount, interArrival, airport.newRandom(0));
+            if (discreteEvent) {
+                planes = runDiscreteEvent(sim, arrivals, airport);
             } else {
-                delay = 1500 + rand.nextInt(1000); // remaining 2 slower (to show clear queue)
+                planes = runThreaded(arrivals, airport);
+            }
+        }
+        stats.setExpectedPlanes(planes);
+        if (trace != null) trace.close();
+
+        AirportLogger.flush();
+        System.out.println("\n=== Simulation End ===");
+        stats.printSummary(gateManager);
+        atc.printRunwayReport();
+        refuelDispatcher.printFleetReport();
+        groundOperations.printCrewReport();
+        if (trace != null) System.out.println("\nTrace: " + trace.getRecordCount() + " events written to " + trace.getPath());
+    }
+
+    // A short threaded run on a throwaway airport, so planes, ATC, gates, crews and trucks
+    // are JIT-compiled before scaled time starts: at 1000x a millisecond spent interpreting
+    // is a simulated second. It warms the code only; contention and queue lengths at this
+    // run's size still build up from cold.
+    private static void warmUp(ExecutionMode threads) {
+        AirportLogger.Level level = AirportLogger.getLevel();
+        AirportLogger.setEnabled(false);
+        ManagementFactory.getPlatformMBeanServer();
+        ScaledClock clock = new ScaledClock(1000);
+        StatisticsManager stats = new StatisticsManager();
+        RefuelDispatcher refuel = new RefuelDispatcher(1, 3, stats, clock);
+        GroundOperations ground = new GroundOperations(GroundOperations.defaultCrews(3), refuel, stats, clock,
+                Scheduler.delayed(ForkJoinPool.commonPool(), clock));
+        FuelMonitor fuel = FuelMonitor.threaded(clock);
+        Airport airport = new Airport(clock, stats,
+                new AirTrafficController(stats, clock, List.of(new Runway(1, Runway.Mode.MIXED, 0))),
+                new GateManager(3), refuel, ground, fuel, threads.newExecutor(), 0);
+        new ThreadedRun(ArrivalFeed.demo(500, 1000, airport.newRandom(0)), airport).run();
+        fuel.stop();
+        AirportLogger.setLevel(level);
+    }
+
+    private static List<Runway> buildRunways(String[] modes, long separation) {
+        List<Runway> runways = new ArrayList<>();
+        for (String mode : modes) {
+            runways.add(new Runway(runways.size() + 1, Runway.Mode.valueOf(mode.toUpperCase()), separation));
+        }
+        return runways;
+    }
+
+    private static int[] parseCrews(String value) {
+        String[] parts = value.split(",");
+        if (parts.length == 1) {
+            int n = Integer.parseInt(parts[0]);
+            return new int[] {n, n, n};
+        }
+        if (parts.length != 3) throw new IllegalArgumentException("--crews needs 1 or 3 counts: " + value);
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+
+    // Returns the number of planes that arrived
+    private static long runThreaded(Iterator<ScheduledFlight> arrivals, Airport airport) {
+        SimulationClock clock = airport.getClock();
+        long start = clock.now();
+        long wallStart = System.nanoTime();
+        long count = new ThreadedRun(arrivals, airport).run();
+        if (clock instanceof ScaledClock scaled) {
+            AirportLogger.flush();
+            System.out.println("Simulated " + (clock.now() - start) + " ms in " + (System.nanoTime() - wallStart) / 1_000_000
+                    + " ms wall time (" + scaled.getFactor() + "x)");
+        }
+        return count;
+    }
+
+    private static void runFleet(int planeCount, int gateCount, int truckCount, int[] crews, int interArrival,
+                                 String[] runwayModes, long separation, Path schedule, Long seed, Path tracePath,
+                                 int holding, HoldingPolicy holdingPolicy, long originDelay, Path checkpoint,
+                                 long checkpointAt, Path resume, Path decisionPath, Path replayPath) {
+        FleetSimulation sim;
+        if (resume != null) {
+            sim = FleetSimulation.restore(resume);
+            System.out.println("Resumed " + resume + " at " + sim.now() + " ms (" + sim.getDecisionCount()
+                    + " decisions made)");
+        } else {
+            if (crews == null) crews = GroundOperations.defaultCrews(gateCount);
+            long runSeed = seed == null ? ThreadLocalRandom.current().nextLong() : seed;
+            FleetStore store = new FleetStore(schedule == null ? planeCount : 1024, runSeed);
+            sim = new FleetSimulation(store, new StatisticsManager(planeCount), new GateManager(gateCount),
+                    buildRunways(runwayModes, separation), truckCount, crews, runSeed);
+            if (holding > 0) sim.setHoldingPolicy(holdingPolicy, holding, originDelay);
+
+            try (ScheduleReader reader = schedule == null ? null : new ScheduleReader(schedule)) {
+                Iterator<ScheduledFlight> arrivals = reader != null ? reader
+                        : ArrivalFeed.demo(planeCount, interArrival, sim.newRandom(0));
+                sim.load(arrivals);
             }
-            Plane plane = new Plane(i + 1, atc, gateManager, refuelTruck, stats);
-            planes[i] = new Thread(plane, "Plane-" + (i + 1));
-            try { Thread.sleep(delay); } catch (InterruptedException ignored) {}
-            planes[i].start();
         }
+        FleetStore fleet = sim.getFleet();
+        StatisticsManager stats = sim.getStatistics();
+        GateManager gateManager = sim.getGateManager();
+        TraceWriter trace = tracePath == null ? null : TraceWriter.open(tracePath, sim);
+        DecisionLog decisions = decisionPath != null ? DecisionLog.record(decisionPath)
+                : replayPath != null ? DecisionLog.replay(replayPath) : null;
+        if (decisions != null) sim.setDecisionLog(decisions);
 
-        // wait all planes to finish
-        for (Thread t : planes) {
-            try { t.join(); } catch (InterruptedException ignored) {}
+        long gcBefore = gcCount();
+        long gcTimeBefore = gcMillis();
+        long start = System.nanoTime();
+        if (checkpoint != null) {
+            sim.runUntil(checkpointAt);
+            sim.checkpoint(checkpoint);
+            System.out.printf("Checkpoint at %d ms written to %s (%.1f MB, %d decisions made)%n", sim.now(), checkpoint,
+                    fileSize(checkpoint) / 1e6, sim.getDecisionCount());
         }
+        long planes = sim.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (trace != null) trace.close();
+        if (decisions != null) {
+            decisions.verifyComplete();
+            decisions.close();
+            System.out.println((decisions.isReplaying() ? "Replayed, all matching: " : "Decision log: ")
+                    + decisions.getPosition() + " decisions in " + decisions.getPath());
+        }
+        stats.setExpectedPlanes(planes);
 
+        System.out.println("Simulated " + sim.now() + " ms in " + elapsedMs + " ms wall time ("
+                + sim.getEventsProcessed() + " events)");
+        System.out.printf("Fleet store: %d planes in %.1f MB; %d GCs, %d ms during the run%n", fleet.size(),
+                fleet.footprintBytes() / 1e6, gcCount() - gcBefore, gcMillis() - gcTimeBefore);
         System.out.println("\n=== Simulation End ===");
         stats.printSummary(gateManager);
+        sim.printRunwayReport();
+        sim.printFleetReport();
+        sim.printCrewReport();
+        if (trace != null) System.out.println("\nTrace: " + trace.getRecordCount() + " events written to " + trace.getPath());
+    }
+
+    private static void runNetwork(int airports, int legs, long flightTime, int planeCount, int gateCount,
+                                   int truckCount, int[] crews, int interArrival, String[] runwayModes,
+                                   long separation, Long seed, int holding, HoldingPolicy holdingPolicy,
+                                   long originDelay) {
+        if (crews == null) crews = GroundOperations.defaultCrews(gateCount);
+        long networkSeed = seed == null ? ThreadLocalRandom.current().nextLong() : seed;
+        AirportNetwork network = new AirportNetwork(flightTime);
+        for (int i = 0; i < airports; i++) {
+            long airportSeed = networkSeed + i;
+            StatisticsManager stats = new StatisticsManager(planeCount);
+            GateManager gateManager = new GateManager(gateCount);
+            FleetStore fleet = new FleetStore(planeCount * (legs + 1), airportSeed);
+            FleetSimulation sim = new FleetSimulation(fleet, stats, gateManager,
+                    buildRunways(runwayModes, separation), truckCount, crews, airportSeed);
+            if (holding > 0) sim.setHoldingPolicy(holdingPolicy, holding, originDelay);
+            int loaded = sim.load(ArrivalFeed.demo(planeCount, interArrival, sim.newRandom(0)));
+            for (int id = 1; id <= loaded; id++) fleet.setLegs(id, legs);
+            network.addAirport("Airport " + (i + 1), sim, stats, gateManager);
+        }
+
+        long start = System.nanoTime();
+        long events;
+        try {
+            events = network.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.println("Simulated " + network.now() + " ms in " + elapsedMs + " ms wall time (" + events
+                + " events on " + airports + " threads, " + events * 1000 / elapsedMs + " events/s)");
+
+        StatisticsManager stats = network.mergedStatistics();
+        stats.setExpectedPlanes((long) planeCount * airports);
+        System.out.println("\n=== Simulation End ===");
+        stats.printSummary(network.getGateManagers());
+        network.printAirportReport();
+    }
+
+    private static long fileSize(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += gc.getCollectionCount();
+        return n;
+    }
+
+    private static long gcMillis() {
+        long ms = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) ms += gc.getCollectionTime();
+        return ms;
+    }
+
+    private static long runDiscreteEvent(EventScheduler sim, Iterator<ScheduledFlight> arrivals, Airport airport) {
+        AirportLogger.useVirtualTime(sim::now);
+        ArrivalFeed feed = new ArrivalFeed(sim, arrivals, airport);
+        feed.start();
+
+        long start = System.nanoTime();
+        sim.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        AirportLogger.flush();
+        System.out.println("Simulated " + sim.now() + " ms in " + elapsedMs + " ms wall time ("
+                + sim.getEventsProcessed() + " events)");
+        return feed.getArrived();
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,27 @@
 package airport;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class AirTrafficController {
-    private final Semaphore runway = new Semaphore(1, true);
-    private final PriorityBlockingQueue<PlaneWrapper> waitingQueue = new PriorityBlockingQueue<>(10,
+    private static final int SUMMARY_LIMIT = 20; // planes listed by queueSummary()
+
+    // What happened to a plane asking to land
+    public enum Admission {
+        ADMITTED,        // holding; it will be cleared (or, when shed, diverted) through its callback
+        DIVERTED,        // turned away to its alternate
+        HELD_AT_ORIGIN   // should try again after getOriginDelayMillis()
+    }
+
+    // Guarded by lock. Indexed heap so an emergency re-prioritizes its plane in O(log n).
+    private final IndexedPriorityQueue<PlaneWrapper> waitingQueue = new IndexedPriorityQueue<>(
             (a, b) -> {
                 // First priority: emergency status
                 boolean aEmerg = a.emergencySequence >= 0;
@@ -25,19 +39,32 @@ public class AirTrafficController {
                 // Both normal: use arrival order (FIFO)
                 return Integer.compare(a.arrivalSequence, b.arrivalSequence);
             });
-    private final Object lock = new Object();
+    private final Map<Plane, PlaneWrapper> waitingByPlane = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock(); // not a monitor, so virtual threads never pin on it
     private final AtomicInteger arrivalCounter = new AtomicInteger(0);
     private final AtomicInteger emergencyCounter = new AtomicInteger(0);
+    private final Queue<PendingTakeoff> pendingTakeoffs = new ArrayDeque<>();
+    private final List<Runway> runways;
+    private final StatisticsManager stats;
+    private final SimulationClock clock;
+    private final long startTime;
+    private int holdingCapacity = Integer.MAX_VALUE; // guarded by lock
+    private HoldingPolicy holdingPolicy = HoldingPolicy.DIVERT;
+    private long originDelayMillis = 0;
 
     // Wrapper class to track both arrival and emergency order
-    private static class PlaneWrapper {
+    private static class PlaneWrapper extends IndexedPriorityQueue.Handle {
         final Plane plane;
         final int arrivalSequence;
+        final GateManager gateManager;
+        final Consumer<LandingClearance> onCleared; // runs once this plane has a runway and a gate
         int emergencySequence = -1; // -1 means not emergency
 
-        PlaneWrapper(Plane plane, int arrivalSequence) {
+        PlaneWrapper(Plane plane, int arrivalSequence, GateManager gateManager, Consumer<LandingClearance> onCleared) {
             this.plane = plane;
             this.arrivalSequence = arrivalSequence;
+            this.gateManager = gateManager;
+            this.onCleared = onCleared;
         }
 
         void declareEmergency(int emergSeq) {
@@ -45,100 +72,309 @@ public class AirTrafficController {
         }
     }
 
-    public void requestToLand(Plane plane, GateManager gateManager) {
-        PlaneWrapper wrapper;
-        synchronized (lock) {
-            wrapper = new PlaneWrapper(plane, arrivalCounter.getAndIncrement());
-            AirportLogger.log("ATC", plane.getName() + " requesting to land (emergency=" + plane.isEmergency() + ")");
-            waitingQueue.add(wrapper);
-            AirportLogger.log("ATC", "Waiting to land: " + queueSummary());
+    private record PendingTakeoff(Plane plane, Consumer<Runway> onCleared) {}
+
+    // A single mixed-use runway with no separation, as in the original airfield
+    public AirTrafficController(StatisticsManager stats, SimulationClock clock) {
+        this(stats, clock, List.of(new Runway(1, Runway.Mode.MIXED, 0)));
+    }
+
+    public AirTrafficController(StatisticsManager stats, SimulationClock clock, List<Runway> runways) {
+        if (runways.stream().noneMatch(r -> r.accepts(true)) || runways.stream().noneMatch(r -> r.accepts(false))) {
+            throw new IllegalArgumentException("Need at least one runway for arrivals and one for departures");
         }
+        this.stats = stats;
+        this.clock = clock;
+        this.runways = List.copyOf(runways);
+        this.startTime = clock.now();
+    }
 
+    // Caps the landing queue at 'capacity' planes; arrivals beyond it are handled by 'policy'.
+    // originDelayMillis is how long HOLD_AT_ORIGIN keeps a plane away before it tries again.
+    public void setHoldingPolicy(HoldingPolicy policy, int capacity, long originDelayMillis) {
+        if (capacity < 1) throw new IllegalArgumentException("Holding capacity must be at least 1");
+        lock.lock();
         try {
-            while (true) {
-                synchronized (lock) {
-                    PlaneWrapper next = waitingQueue.peek();
-                    boolean gateAvailable = gateManager.hasFreeGate();
-
-                    if (next != null && next.plane == plane && gateAvailable && runway.tryAcquire()) {
-                        waitingQueue.poll();
-                        AirportLogger.log("ATC", plane.getName() + " granted runway access.");
-                        AirportLogger.log("ATC", "Waiting to land: " + queueSummary());
-                        return;
-                    }
-                }
+            this.holdingPolicy = policy;
+            this.holdingCapacity = capacity;
+            this.originDelayMillis = originDelayMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getOriginDelayMillis() { return originDelayMillis; }
 
-                // Periodically recheck every 300ms
-                Thread.sleep(300);
+    // If the plane is admitted to the holding pattern, onCleared runs as soon as it is at
+    // the head and both a runway and a gate are free; the gate is reserved in the same
+    // step, so docking can never block. A plane shed later gets LandingClearance.DIVERTED.
+    // onCleared never runs for a plane that is not admitted.
+    public Admission requestToLand(Plane plane, GateManager gateManager, Consumer<LandingClearance> onCleared) {
+        lock.lock();
+        try {
+            Admission admission = admit(plane);
+            if (admission != Admission.ADMITTED) return admission;
+            PlaneWrapper wrapper = new PlaneWrapper(plane, arrivalCounter.getAndIncrement(), gateManager, onCleared);
+            TraceWriter.record(TraceEvent.LANDING_REQUESTED, plane.getId(), -1);
+            AirportLogger.log("ATC", () -> plane.getName() + " requesting to land (emergency=" + plane.isEmergency() + ")");
+            waitingQueue.add(wrapper);
+            waitingByPlane.put(plane, wrapper);
+            logQueue("ATC", "Waiting to land: ");
+            dispatch();
+            return Admission.ADMITTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called under lock before a plane joins the landing queue
+    private Admission admit(Plane plane) {
+        if (waitingQueue.size() < holdingCapacity) return Admission.ADMITTED;
+        PlaneWrapper victim = holdingPolicy == HoldingPolicy.SHED_BY_FUEL ? mostFuelHolding() : null;
+        int victimFuel = victim == null ? -1 : victim.plane.getFuelLevel();
+        return switch (holdingPolicy.whenFull(plane.getFuelLevel(), victimFuel)) {
+            case ADMITTED -> {
+                AirportLogger.log("ATC", () -> "Holding full: " + plane.getName() + " (fuel=" + plane.getFuelLevel()
+                        + ") cannot reach an alternate, admitted.");
+                yield Admission.ADMITTED;
+            }
+            case HELD_AT_ORIGIN -> {
+                TraceWriter.record(TraceEvent.HELD_AT_ORIGIN, plane.getId(), -1);
+                AirportLogger.log("ATC", () -> "Holding full: " + plane.getName() + " held at origin.");
+                yield Admission.HELD_AT_ORIGIN;
+            }
+            case SHED -> {
+                waitingQueue.remove(victim);
+                waitingByPlane.remove(victim.plane);
+                stats.recordDiversion(true);
+                TraceWriter.record(TraceEvent.DIVERTED, victim.plane.getId(), -1);
+                AirportLogger.log("ATC", () -> "Holding full: " + victim.plane.getName() + " (fuel=" + victimFuel
+                        + ") shed to its alternate.");
+                victim.onCleared.accept(LandingClearance.DIVERTED);
+                yield Admission.ADMITTED;
             }
-        } catch (InterruptedException ignored) {}
+            case DIVERTED -> divertArriving(plane);
+        };
     }
 
-    public void requestToTakeoff(Plane plane) {
-        AirportLogger.log("ATC", plane.getName() + " requesting runway for takeoff");
+    private Admission divertArriving(Plane plane) {
+        stats.recordDiversion(false);
+        TraceWriter.record(TraceEvent.DIVERTED, plane.getId(), -1);
+        AirportLogger.log("ATC", () -> "Holding full: " + plane.getName() + " diverted.");
+        return Admission.DIVERTED;
+    }
+
+    // The holding plane best able to reach an alternate; null if all are emergencies
+    private PlaneWrapper mostFuelHolding() {
+        PlaneWrapper[] best = new PlaneWrapper[1];
+        waitingQueue.forEach(w -> {
+            if (w.emergencySequence < 0 && (best[0] == null || w.plane.getFuelLevel() > best[0].plane.getFuelLevel())) {
+                best[0] = w;
+            }
+        });
+        return best[0];
+    }
+
+    public Runway requestToTakeoff(Plane plane) {
+        CompletableFuture<Runway> cleared = new CompletableFuture<>();
+        requestToTakeoff(plane, cleared::complete);
+        return await(cleared); // Wait for a runway to be free
+    }
+
+    public void requestToTakeoff(Plane plane, Consumer<Runway> onCleared) {
+        AirportLogger.log("ATC", () -> plane.getName() + " requesting runway for takeoff");
+        TraceWriter.record(TraceEvent.TAKEOFF_REQUESTED, plane.getId(), -1);
+        lock.lock();
+        try {
+            pendingTakeoffs.add(new PendingTakeoff(plane, onCleared));
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> cleared) {
         try {
-            runway.acquire(); // Wait for runway to be free
+            return cleared.get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
         }
     }
 
-    public void releaseRunway(Plane plane) {
-        AirportLogger.log("ATC", plane.getName() + " cleared from runway.");
-        runway.release();
-        synchronized (lock) { lock.notifyAll(); }
+    // A gate was freed: a waiting plane may now be able to land
+    public void gateReleased() {
+        lock.lock();
+        try {
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public void notifyEmergency(Plane plane, GateManager gateManager) {
-        AirportLogger.log("ATC ALERT", plane.getName() + " declared emergency!");
+    public void releaseRunway(Plane plane, Runway runway) {
+        AirportLogger.log("ATC", () -> plane.getName() + " cleared from " + runway.getName() + ".");
+        TraceWriter.record(TraceEvent.RUNWAY_RELEASED, plane.getId(), runway.getId());
+        lock.lock();
+        try {
+            runway.release(clock.now());
+            if (!pendingTakeoffs.isEmpty() || !waitingQueue.isEmpty()) runway.markReleasedWithWaiters(clock.now());
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        synchronized (lock) {
-            // Log current airport state (BEFORE modifying wrapper)
-            AirportLogger.log("ATC STATUS", "Runway available: " + runway.availablePermits());
-            AirportLogger.log("ATC STATUS", gateManager.getGateStatusSummary());
-            AirportLogger.log("ATC STATUS", "Landing queue BEFORE: " + queueSummary());
-
-            // Find the wrapper for this plane
-            PlaneWrapper targetWrapper = null;
-            for (PlaneWrapper w : waitingQueue) {
-                if (w.plane == plane) {
-                    targetWrapper = w;
-                    break;
+    // Hand free runways straight to the next planes. Called under lock whenever a runway,
+    // a gate or the queue order changes. Takeoffs go first, as a blocked takeoff always
+    // won the runway over the landing queue; each plane gets the free runway of the right
+    // mode that can start soonest.
+    private void dispatch() {
+        boolean granted = true;
+        while (granted) {
+            granted = false;
+
+            PendingTakeoff takeoff = pendingTakeoffs.peek();
+            if (takeoff != null) {
+                Runway r = firstFree(false);
+                if (r != null) {
+                    pendingTakeoffs.poll();
+                    grant(r, false);
+                    TraceWriter.record(TraceEvent.TAKEOFF_CLEARED, takeoff.plane().getId(), r.getId());
+                    takeoff.onCleared().accept(r);
+                    granted = true;
                 }
             }
 
-            if (targetWrapper != null && targetWrapper.emergencySequence < 0) {
-                // Remove from queue
-                waitingQueue.remove(targetWrapper);
+            PlaneWrapper next = waitingQueue.peek();
+            if (next != null && next.gateManager.hasFreeGate()) {
+                Runway r = firstFree(true);
+                GateReservation gate = r == null ? null : next.gateManager.tryReserveGate(next.plane);
+                if (gate != null) {
+                    waitingQueue.poll();
+                    waitingByPlane.remove(next.plane);
+                    grant(r, true);
+                    AirportLogger.log("ATC", () -> next.plane.getName() + " granted runway access (" + r.getName()
+                            + ", Gate " + gate.getGate().getGateId() + " reserved).");
+                    logQueue("ATC", "Waiting to land: ");
+                    TraceWriter.record(TraceEvent.LANDING_CLEARED, next.plane.getId(), r.getId());
+                    next.onCleared.accept(new LandingClearance(r, gate));
+                    granted = true;
+                }
+            }
+        }
+    }
+
+    private Runway firstFree(boolean arrival) {
+        Runway best = null;
+        for (Runway r : runways) {
+            if (r.isFree() && r.accepts(arrival) && (best == null || r.getReadyAt() < best.getReadyAt())) best = r;
+        }
+        return best;
+    }
+
+    private void grant(Runway r, boolean arrival) {
+        long now = clock.now();
+        long gap = r.takeHandoffGap(now);
+        if (gap >= 0) stats.recordRunwayHandoff(gap);
+        r.occupy(arrival);
+    }
+
+    public int getFreeRunwayCount() {
+        lock.lock();
+        try {
+            int free = 0;
+            for (Runway r : runways) if (r.isFree()) free++;
+            return free;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void printRunwayReport() {
+        lock.lock();
+        try {
+            printRunwayReport(runways, clock.now() - startTime);
+        } finally {
+            lock.unlock();
+        }
+    }
 
+    // Shared with FleetSimulation, so both engines report alike
+    static void printRunwayReport(Iterable<Runway> runways, long elapsedMillis) {
+        double hours = Math.max(1, elapsedMillis) / 3_600_000.0;
+        System.out.println("\n--- RUNWAY THROUGHPUT ---");
+        for (Runway r : runways) {
+            System.out.printf("%s (%s): %d arrivals, %d departures, %.1f movements/hour%n",
+                    r.getName(), r.getMode(), r.getArrivals(), r.getDepartures(), r.getMovements() / hours);
+        }
+    }
+
+    public void notifyEmergency(Plane plane, GateManager gateManager) {
+        AirportLogger.log("ATC ALERT", () -> plane.getName() + " declared emergency!");
+        TraceWriter.record(TraceEvent.EMERGENCY, plane.getId(), -1);
+
+        lock.lock();
+        try {
+            // Log current airport state (BEFORE modifying wrapper)
+            AirportLogger.log("ATC STATUS", () -> "Runways available: " + getFreeRunwayCount());
+            AirportLogger.log("ATC STATUS", gateManager::getGateStatusSummary);
+            AirportLogger.log("ATC STATUS", () -> "Landing queue BEFORE: " + queueSummary());
+
+            PlaneWrapper targetWrapper = waitingByPlane.get(plane);
+
+            if (targetWrapper != null && targetWrapper.emergencySequence < 0) {
                 // Mark as emergency with new sequence
                 targetWrapper.declareEmergency(emergencyCounter.getAndIncrement());
 
-                // Re-add - the comparator will now prioritize it
-                waitingQueue.add(targetWrapper);
+                // Sift it up in place - the comparator will now prioritize it
+                waitingQueue.update(targetWrapper);
             }
 
             // Log new queue order
-            AirportLogger.log("ATC STATUS", "Landing queue AFTER: " + queueSummary());
-            AirportLogger.log("ATC ACTION", plane.getName() + " moved to front (emergency priority).");
+            logQueue("ATC STATUS", "Landing queue AFTER: ");
+            AirportLogger.log("ATC ACTION", () -> plane.getName() + " moved to front (emergency priority).");
 
-            lock.notifyAll(); // Wake up waiting planes to recheck queue
+            dispatch();
+        } finally {
+            lock.unlock();
         }
     }
 
+    // queueSummary() sorts the whole queue, so only build it when the line is logged
+    private void logQueue(String component, String label) {
+        AirportLogger.log(component, () -> label + queueSummary());
+    }
+
+    // Current priority order; long queues are cut off after the first SUMMARY_LIMIT planes
     public String queueSummary() {
-        if (waitingQueue.isEmpty()) return "none";
-        StringBuilder sb = new StringBuilder();
+        lock.lock();
+        try {
+            if (waitingQueue.isEmpty()) return "none";
+            StringBuilder sb = new StringBuilder();
 
-        // Create a sorted list to show current priority order
-        List<PlaneWrapper> sortedList = new ArrayList<>(waitingQueue);
-        sortedList.sort(waitingQueue.comparator());
+            waitingQueue.forEachInOrder(SUMMARY_LIMIT, w -> {
+                sb.append(w.plane.getName());
+                if (w.emergencySequence >= 0) sb.append("(E)");
+                sb.append(" ");
+            });
+            if (waitingQueue.size() > SUMMARY_LIMIT) {
+                sb.append("... (+").append(waitingQueue.size() - SUMMARY_LIMIT).append(" more)");
+            }
+            return sb.toString().trim();
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        for (PlaneWrapper w : sortedList) {
-            sb.append(w.plane.getName());
-            if (w.emergencySequence >= 0) sb.append("(E)");
-            sb.append(" ");
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waitingQueue.size();
+        } finally {
+            lock.unlock();
         }
-        return sb.toString().trim();
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package airport;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The components of one airport, shared by all of its planes
+public class Airport {
+    private final SimulationClock clock;
+    private final StatisticsManager stats;
+    private final AirTrafficController atc;
+    private final GateManager gateManager;
+    private final RefuelDispatcher refuelDispatcher;
+    private final GroundOperations groundOperations;
+    private final FuelMonitor fuelMonitor;
+    private final ExecutorService executor; // runs planes in the threaded model, null for discrete-event runs
+    private final long seed;
+
+    // Unseeded: every run is different
+    public Airport(SimulationClock clock, StatisticsManager stats, AirTrafficController atc, GateManager gateManager,
+                   RefuelDispatcher refuelDispatcher, GroundOperations groundOperations, FuelMonitor fuelMonitor,
+                   ExecutorService executor) {
+        this(clock, stats, atc, gateManager, refuelDispatcher, groundOperations, fuelMonitor, executor,
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    // Seeded: a discrete-event run with the same seed and parameters replays exactly
+    public Airport(SimulationClock clock, StatisticsManager stats, AirTrafficController atc, GateManager gateManager,
+                   RefuelDispatcher refuelDispatcher, GroundOperations groundOperations, FuelMonitor fuelMonitor,
+                   ExecutorService executor, long seed) {
+        this.clock = clock;
+        this.stats = stats;
+        this.atc = atc;
+        this.gateManager = gateManager;
+        this.refuelDispatcher = refuelDispatcher;
+        this.groundOperations = groundOperations;
+        this.fuelMonitor = fuelMonitor;
+        this.executor = executor;
+        this.seed = seed;
+    }
+
+    // An independent random stream per consumer (stream = plane id, 0 for arrivals)
+    public Random newRandom(long stream) {
+        return new Random(mix(seed + mix(stream)));
+    }
+
+    // SplitMix64 finalizer, so neighbouring seeds and streams give unrelated sequences
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public SimulationClock getClock() { return clock; }
+    public StatisticsManager getStats() { return stats; }
+    public AirTrafficController getAtc() { return atc; }
+    public GateManager getGateManager() { return gateManager; }
+    public RefuelDispatcher getRefuelDispatcher() { return refuelDispatcher; }
+    public GroundOperations getGroundOperations() { return groundOperations; }
+    public FuelMonitor getFuelMonitor() { return fuelMonitor; }
+    public ExecutorService getExecutor() { return executor; }
+    public long getSeed() { return seed; }
+}
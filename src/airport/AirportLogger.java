@@ -1,13 +1,217 @@
 package airport;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+// Asynchronous logger. Callers only timestamp the line and append it to a bounded
+// lock-free queue; a single background writer formats lines in batches and writes
+// them through an NIO channel, so no component ever waits on console I/O.
 public class AirportLogger {
-    private static final SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss.SSS");
+    public enum Level { DEBUG, INFO, WARN, OFF }
 
-    public static synchronized void log(String component, String message) {
-        String timestamp = sdf.format(new Date());
-        System.out.println("[" + timestamp + "] [" + component + "] " + message);
+    public enum OverflowPolicy {
+        DROP,   // discard the line and count it (never slows the simulation down)
+        BLOCK   // wait for the writer to make room (never loses a line)
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    private record Entry(long time, Level level, String component, String message) {}
+
+    private static final ConcurrentLinkedQueue<Entry> buffer = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger buffered = new AtomicInteger();
+    private static final AtomicLong accepted = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong droppedTotal = new AtomicLong();
+
+    private static volatile Level threshold = Level.INFO;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private static volatile int capacity = 65_536;
+    private static volatile LongSupplier timeSource = null; // null = wall clock
+    private static final WritableByteChannel STDOUT = Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+    private static final ReentrantLock outLock = new ReentrantLock(); // held for each batch written
+    private static WritableByteChannel out = STDOUT;                   // guarded by outLock
+    private static volatile Thread writer;
+
+    public static void log(String component, String message) {
+        if (Level.INFO.compareTo(threshold) < 0) return;
+        enqueue(Level.INFO, component, message);
+    }
+
+    // The message is only built when INFO is enabled
+    public static void log(String component, Supplier<String> message) {
+        log(Level.INFO, component, message);
+    }
+
+    public static void log(Level level, String component, Supplier<String> message) {
+        if (level.compareTo(threshold) < 0) return;
+        enqueue(level, component, message.get());
+    }
+
+    public static boolean isEnabled() { return isEnabled(Level.INFO); }
+
+    public static boolean isEnabled(Level level) { return level.compareTo(threshold) >= 0; }
+
+    public static void setEnabled(boolean on) { threshold = on ? Level.INFO : Level.OFF; }
+
+    public static void setLevel(Level level) { threshold = level; }
+
+    public static Level getLevel() { return threshold; }
+
+    public static void setOverflowPolicy(OverflowPolicy policy, int bufferCapacity) {
+        overflowPolicy = policy;
+        capacity = bufferCapacity;
+    }
+
+    // Write to a file instead of stdout, closing the file written so far if there was one.
+    // Lines logged before the call go to the old destination; the swap waits for any batch
+    // the writer is in the middle of, so nothing is written to a closed channel.
+    public static void toFile(Path path) {
+        try {
+            FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            flush();
+            WritableByteChannel previous;
+            outLock.lock();
+            try {
+                previous = out;
+                out = file;
+            } finally {
+                outLock.unlock();
+            }
+            if (previous != STDOUT) previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Stamp log lines with simulation time instead of wall-clock time
+    public static void useVirtualTime(LongSupplier millis) { timeSource = millis; }
+
+    public static long getDroppedCount() { return droppedTotal.get(); }
+
+    // Wait until every line logged so far has been written
+    public static void flush() {
+        long target = accepted.get();
+        while (writer != null && written.get() < target) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    private static void enqueue(Level level, String component, String message) {
+        LongSupplier source = timeSource;
+        long time = source == null ? System.currentTimeMillis() : source.getAsLong();
+
+        while (!reserveSlot()) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.incrementAndGet();
+                droppedTotal.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+
+        accepted.incrementAndGet();
+        buffer.add(new Entry(time, level, component, message));
+        Thread w = writer;
+        LockSupport.unpark(w != null ? w : startWriter());
+    }
+
+    // Takes a place in the buffer if one is free. Waiting callers hold no place, so the
+    // count only ever covers queued lines and the writer can always bring it down.
+    private static boolean reserveSlot() {
+        while (true) {
+            int n = buffered.get();
+            if (n >= capacity) return false;
+            if (buffered.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    private static synchronized Thread startWriter() {
+        if (writer == null) {
+            Thread t = new Thread(AirportLogger::drain, "airport-logger");
+            t.setDaemon(true);
+            t.start();
+            writer = t;
+            Runtime.getRuntime().addShutdownHook(new Thread(AirportLogger::flush));
+        }
+        return writer;
+    }
+
+    // Background writer: format up to a batch of lines and write them in one call
+    private static void drain() {
+        StringBuilder sb = new StringBuilder(BATCH_SIZE * 96);
+        while (true) {
+            int n = 0;
+            Entry e;
+            while (n < BATCH_SIZE && (e = buffer.poll()) != null) {
+                format(sb, e);
+                n++;
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) sb.append("[AirportLogger] ").append(lost).append(" lines dropped (buffer full)\n");
+
+            if (sb.length() > 0) write(sb);
+            if (n == 0) {
+                LockSupport.parkNanos(1_000_000);
+                continue;
+            }
+            buffered.addAndGet(-n);
+            written.addAndGet(n);
+        }
+    }
+
+    private static void write(StringBuilder sb) {
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        sb.setLength(0);
+        outLock.lock();
+        try {
+            while (bytes.hasRemaining()) out.write(bytes);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        } finally {
+            outLock.unlock();
+        }
+    }
+
+    // [HH:mm:ss.SSS] [component] message -- virtual time reads as time since the start of the run
+    private static void format(StringBuilder sb, Entry e) {
+        long t = e.time;
+        if (timeSource == null) t += TimeZone.getDefault().getOffset(t);
+        long ms = Math.floorMod(t, 86_400_000L);
+        sb.append('[');
+        pad(sb, ms / 3_600_000, 2).append(':');
+        pad(sb, ms / 60_000 % 60, 2).append(':');
+        pad(sb, ms / 1000 % 60, 2).append('.');
+        pad(sb, ms % 1000, 3).append("] [");
+        if (e.level != Level.INFO) sb.append(e.level).append("] [");
+        sb.append(e.component).append("] ").append(e.message).append('\n');
+    }
+
+    private static StringBuilder pad(StringBuilder sb, long value, int width) {
+        for (long p = 10; width > 1; width--, p *= 10) {
+            if (value < p) sb.append('0');
+        }
+        return sb.append(value);
     }
 }
@@ -0,0 +1,70 @@
+package airport;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+// JMX view of an airport's live state. Every gauge is read from the components on
+// demand, so the simulation does no extra work while nobody is looking.
+// Browse it with jconsole or VisualVM under airport:type=Airport.
+public class AirportMonitor implements AirportMonitorMBean {
+    private final Airport airport;
+
+    public AirportMonitor(Airport airport) {
+        this.airport = airport;
+    }
+
+    // Registers a monitor for this airport on the platform MBean server
+    public static ObjectName register(Airport airport, String name) {
+        try {
+            ObjectName objectName = new ObjectName("airport:type=Airport,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new AirportMonitor(airport), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register JMX monitor for " + name, e);
+        }
+    }
+
+    public static void unregister(ObjectName objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister " + objectName, e);
+        }
+    }
+
+    @Override
+    public int getLandingQueueDepth() { return airport.getAtc().getQueueDepth(); }
+
+    @Override
+    public int getHoldingPlanes() { return airport.getFuelMonitor().getHoldingCount(); }
+
+    @Override
+    public int getFreeRunways() { return airport.getAtc().getFreeRunwayCount(); }
+
+    @Override
+    public int getOccupiedGates() {
+        GateManager gm = airport.getGateManager();
+        return gm.getGateCount() - gm.getFreeGateCount();
+    }
+
+    @Override
+    public int getFreeGates() { return airport.getGateManager().getFreeGateCount(); }
+
+    @Override
+    public int getRefuelQueueLength() { return airport.getRefuelDispatcher().getQueueLength(); }
+
+    @Override
+    public int getCrewQueueLength() {
+        int waiting = 0;
+        for (GroundOperations.Task t : GroundOperations.Task.values()) {
+            waiting += airport.getGroundOperations().getQueueLength(t);
+        }
+        return waiting;
+    }
+
+    @Override
+    public long getPlanesServed() { return airport.getStats().getPlanesServed(); }
+
+    @Override
+    public long getPlanesDiverted() { return airport.getStats().getDiverted(); }
+}
@@ -0,0 +1,14 @@
+package airport;
+
+// Live gauges for one airport, published over JMX by AirportMonitor
+public interface AirportMonitorMBean {
+    int getLandingQueueDepth();
+    int getHoldingPlanes();
+    int getFreeRunways();
+    int getOccupiedGates();
+    int getFreeGates();
+    int getRefuelQueueLength();
+    int getCrewQueueLength();
+    long getPlanesServed();
+    long getPlanesDiverted();
+}
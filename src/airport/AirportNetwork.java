@@ -0,0 +1,214 @@
+package airport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+
+// Several airports simulated at once, each a FleetSimulation with its own gates, runways,
+// trucks, crews and statistics, run by one platform thread. Planes flying on, or diverting
+// to their alternate, are the only thing that crosses between airports: the sender puts
+// them in a mailbox that only it writes, and the receiver reads it once the window is over.
+// No lock or atomic is shared on the way, so the airports scale with the cores available.
+//
+// The airports sit on a ring, flightMillis apart per hop, and each one's alternate is the
+// next one along. A plane turned away burns DIVERT_FUEL_PER_HOP getting there and then
+// lands as an emergency, whatever holding holds there, so no plane circles the ring; one
+// whose fuel runs out first is reported, not clamped back into the air. As no flight is
+// shorter than flightMillis, every airport can simulate a window of that length without
+// hearing from the others (conservative lookahead): a plane sent during a window lands
+// after the window ends. A Phaser closes each window; the last airport to arrive picks
+// where the next one starts, skipping idle stretches, and ends the run once no airport has
+// events left and no plane is in the air.
+public class AirportNetwork {
+    private static final int DIVERT_FUEL_PER_HOP = 10;
+
+    private final long flightMillis;
+    private final List<Shard> shards = new ArrayList<>();
+    private volatile long windowStart = 0;
+    private long windows = 0;
+    private volatile Throwable failure;
+
+    // One airport and the thread-confined parts that belong to it
+    private class Shard implements FleetSimulation.Network, Runnable {
+        final String name;
+        final int index;
+        final FleetSimulation sim;
+        final StatisticsManager stats;
+        final GateManager gateManager;
+        final Random random;
+        final Mailbox[][] outbox = new Mailbox[2][]; // [window parity][destination]
+        int parity;
+        long arrived;
+        long flownIn;
+        long sent;
+        // Written before arriving at the window barrier, read by whoever advances it
+        long nextEvent;
+        long earliestSent;
+
+        Shard(String name, int index, FleetSimulation sim, StatisticsManager stats, GateManager gateManager) {
+            this.name = name;
+            this.index = index;
+            this.sim = sim;
+            this.stats = stats;
+            this.gateManager = gateManager;
+            this.random = sim.newRandom(-1);
+            sim.setNetwork(this);
+        }
+
+        @Override
+        public void send(long time, int fuel, int passengers, int legs, int reroutes) {
+            int n = shards.size();
+            boolean diverted = reroutes > 0;
+            int to = diverted ? (index + 1) % n : (index + 1 + random.nextInt(n - 1)) % n;
+            int hops = Math.min(Math.abs(to - index), n - Math.abs(to - index));
+            long arrival = time + hops * flightMillis;
+            if (diverted) {
+                // May reach zero: the receiver reports the plane as out of fuel
+                outbox[parity][to].add(arrival, fuel - hops * DIVERT_FUEL_PER_HOP, passengers, legs, reroutes);
+            } else {
+                outbox[parity][to].add(arrival, -1, -1, legs, 0); // fuel and passengers picked on arrival
+            }
+            earliestSent = Math.min(earliestSent, arrival);
+            sent++;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int window = 0; ; window++) {
+                    if (window > 0) {
+                        // Mail of the previous window; senders are now filling the other parity
+                        for (Shard from : shards) flownIn += from.outbox[(window - 1) & 1][index].deliverTo(sim);
+                    }
+                    parity = window & 1;
+                    earliestSent = Long.MAX_VALUE;
+                    arrived = sim.runUntil(windowStart + flightMillis);
+                    nextEvent = sim.nextEventTime();
+                    if (barrier.arriveAndAwaitAdvance() < 0) return;
+                }
+            } catch (Throwable t) {
+                failure = t;
+                barrier.forceTermination();
+            }
+        }
+    }
+
+    private final Phaser barrier = new Phaser() {
+        @Override
+        protected boolean onAdvance(int phase, int parties) {
+            long next = Long.MAX_VALUE;
+            for (Shard s : shards) next = Math.min(next, Math.min(s.nextEvent, s.earliestSent));
+            windows++;
+            windowStart = next;
+            return next == Long.MAX_VALUE;
+        }
+    };
+
+    // Planes sent from one airport to another, as parallel arrays; only the sender adds and
+    // only the receiver drains, in different windows
+    private static class Mailbox {
+        private long[] time = new long[64];
+        private int[] fuel = new int[64];
+        private int[] passengers = new int[64];
+        private byte[] legs = new byte[64];
+        private byte[] reroutes = new byte[64];
+        private int size = 0;
+
+        void add(long t, int f, int p, int l, int r) {
+            if (size == time.length) {
+                int n = size * 2;
+                time = Arrays.copyOf(time, n);
+                fuel = Arrays.copyOf(fuel, n);
+                passengers = Arrays.copyOf(passengers, n);
+                legs = Arrays.copyOf(legs, n);
+                reroutes = Arrays.copyOf(reroutes, n);
+            }
+            time[size] = t;
+            fuel[size] = f;
+            passengers[size] = p;
+            legs[size] = (byte) l;
+            reroutes[size] = (byte) r;
+            size++;
+        }
+
+        int deliverTo(FleetSimulation sim) {
+            int n = size;
+            for (int i = 0; i < n; i++) sim.receive(time[i], fuel[i], passengers[i], legs[i], reroutes[i]);
+            size = 0;
+            return n;
+        }
+    }
+
+    // flightMillis = flight time between neighbouring airports, and the window length
+    public AirportNetwork(long flightMillis) {
+        if (flightMillis < 1) throw new IllegalArgumentException("Flight time must be at least 1 ms");
+        this.flightMillis = flightMillis;
+    }
+
+    // The next airport on the ring; stats and gateManager must be the ones 'sim' uses
+    public void addAirport(String name, FleetSimulation sim, StatisticsManager stats, GateManager gateManager) {
+        shards.add(new Shard(name, shards.size(), sim, stats, gateManager));
+    }
+
+    // Runs every airport on its own thread until all planes have finished their journeys;
+    // returns the number of events processed
+    public long run() throws InterruptedException {
+        int n = shards.size();
+        if (n < 2) throw new IllegalStateException("A network needs at least two airports");
+        for (Shard s : shards) {
+            s.outbox[0] = new Mailbox[n];
+            s.outbox[1] = new Mailbox[n];
+            for (int i = 0; i < n; i++) {
+                s.outbox[0][i] = new Mailbox();
+                s.outbox[1][i] = new Mailbox();
+            }
+        }
+        barrier.bulkRegister(n);
+        List<Thread> threads = new ArrayList<>();
+        for (Shard s : shards) threads.add(Thread.ofPlatform().name("airport-" + (s.index + 1)).start(s));
+        for (Thread t : threads) t.join();
+        if (failure != null) throw new IllegalStateException("Airport simulation failed", failure);
+        return getEventsProcessed();
+    }
+
+    public long getEventsProcessed() {
+        long events = 0;
+        for (Shard s : shards) events += s.sim.getEventsProcessed();
+        return events;
+    }
+
+    // Latest simulated time any airport reached
+    public long now() {
+        long now = 0;
+        for (Shard s : shards) now = Math.max(now, s.sim.now());
+        return now;
+    }
+
+    // Every airport's statistics added together; call after run()
+    public StatisticsManager mergedStatistics() {
+        StatisticsManager merged = new StatisticsManager();
+        for (Shard s : shards) merged.add(s.stats);
+        return merged;
+    }
+
+    public GateManager[] getGateManagers() {
+        GateManager[] gates = new GateManager[shards.size()];
+        for (Shard s : shards) gates[s.index] = s.gateManager;
+        return gates;
+    }
+
+    public void printAirportReport() {
+        System.out.println("\n--- AIRPORT NETWORK ---");
+        long sent = 0;
+        for (Shard s : shards) {
+            System.out.printf("%s: %d arrivals (%d flown in), %d journeys ended, %d rerouted out (%d at bingo fuel), "
+                            + "%d out of fuel on the way in, wait p99 %d ms, %d events%n", s.name, s.arrived, s.flownIn,
+                    s.stats.getPlanesServed(), s.stats.getRerouted(), s.stats.getReroutedLowFuel(),
+                    s.stats.getFuelExhausted(),
+                    s.stats.snapshot(StatisticsManager.WAITING_TIME).percentile(0.99), s.sim.getEventsProcessed());
+            sent += s.sent;
+        }
+        System.out.println(sent + " flights between airports, " + windows + " windows of " + flightMillis + " ms");
+    }
+}
@@ -0,0 +1,62 @@
+package airport;
+import java.util.Iterator;
+import java.util.Random;
+
+// Feeds a stream of arrivals into a discrete-event run. Flights are pulled one at a
+// time, each scheduled when the previous one arrives, so the event queue and the heap
+// stay small however long the stream is.
+public class ArrivalFeed {
+    private final EventScheduler sim;
+    private final Iterator<ScheduledFlight> arrivals;
+    private final Airport airport;
+    private int arrived = 0;
+
+    public ArrivalFeed(EventScheduler sim, Iterator<ScheduledFlight> arrivals, Airport airport) {
+        this.sim = sim;
+        this.arrivals = arrivals;
+        this.airport = airport;
+    }
+
+    public void start() { scheduleNext(); }
+
+    public int getArrived() { return arrived; }
+
+    private void scheduleNext() {
+        if (!arrivals.hasNext()) return;
+        ScheduledFlight flight = arrivals.next();
+        sim.schedule(Math.max(0, flight.arrivalMillis() - sim.now()), () -> {
+            new Plane(++arrived, airport, flight).arrive(sim);
+            scheduleNext();
+        });
+    }
+
+    // The built-in traffic when no schedule is given: planes pick their own fuel and
+    // passengers. With interArrival > 0 gaps are uniform around that mean, otherwise
+    // the original demo pattern is used.
+    public static Iterator<ScheduledFlight> demo(int planeCount, int interArrival, Random rand) {
+        return new Iterator<>() {
+            private int i = 0;
+            private long arrival = 0;
+
+            @Override
+            public boolean hasNext() { return i < planeCount; }
+
+            @Override
+            public ScheduledFlight next() {
+                arrival += arrivalDelay(i, interArrival, rand);
+                i++;
+                return new ScheduledFlight("Plane-" + i, arrival, -1, -1, null);
+            }
+        };
+    }
+
+    private static int arrivalDelay(int i, int interArrival, Random rand) {
+        if (interArrival > 0) {
+            return interArrival / 2 + rand.nextInt(interArrival); // mean = interArrival
+        }
+        if (i < 4) {
+            return 300; // first 4 planes arrive almost simultaneously
+        }
+        return 1500 + rand.nextInt(1000); // remaining slower (to show clear queue)
+    }
+}
@@ -0,0 +1,87 @@
+package airport;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A fixed number of interchangeable crews for one kind of ground task. Work waits in
+// FIFO order for the next free crew; nothing blocks, the waiting callback simply runs
+// when a crew is handed over.
+public class CrewPool {
+    private final String name;
+    private final int crews;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int busy = 0;
+    private long jobs = 0;
+    private long busyMillis = 0;
+
+    public CrewPool(String name, int crews) {
+        if (crews < 1) throw new IllegalArgumentException("Need at least one crew for " + name);
+        this.name = name;
+        this.crews = crews;
+    }
+
+    public String getName() { return name; }
+    public int getCrews() { return crews; }
+
+    // onAssigned runs (possibly right away) once a crew is free; the caller must release() it
+    public void acquire(Runnable onAssigned) {
+        lock.lock();
+        try {
+            if (busy == crews) {
+                waiting.add(onAssigned);
+                return;
+            }
+            busy++;
+            jobs++;
+        } finally {
+            lock.unlock();
+        }
+        onAssigned.run();
+    }
+
+    // Hands the crew straight to the next job in line, or back to the pool
+    public void release(long workedMillis) {
+        Runnable next;
+        lock.lock();
+        try {
+            busyMillis += workedMillis;
+            next = waiting.poll();
+            if (next == null) {
+                busy--;
+                return;
+            }
+            jobs++;
+        } finally {
+            lock.unlock();
+        }
+        next.run();
+    }
+
+    public int getQueueLength() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getJobs() {
+        lock.lock();
+        try {
+            return jobs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBusyMillis() {
+        lock.lock();
+        try {
+            return busyMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
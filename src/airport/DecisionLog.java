@@ -0,0 +1,182 @@
+package airport;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Ordered log of every choice the fleet engine makes (landing grants with their gate,
+// takeoff grants, emergency promotions, truck dispatches, diversions) and of every random
+// draw. Recording writes it to a file. Replaying reads it back while the engine runs
+// again: draws come from the log instead of the planes' random streams, and every
+// decision must match the logged one, so a replay either reproduces the recorded run or
+// stops at the first decision the code now makes differently.
+//
+// The file is a 16-byte header (magic, number of the first decision) followed by one
+// 17-byte record per decision: byte kind, long time, int plane, int value. Decisions are
+// numbered from the start of the run, so a log recorded after resuming from a checkpoint
+// starts where the checkpoint was taken, and a whole-run log can be replayed from one.
+public final class DecisionLog implements Closeable {
+    public static final long MAGIC = 0x4150_5444_4543_3031L; // "APTDEC01"
+
+    public enum Kind {
+        LANDING_GRANT,  // value: runway index << 16 | gate id
+        TAKEOFF_GRANT,  // value: runway index
+        EMERGENCY,      // value: emergency sequence, -1 if the plane was not holding
+        TRUCK_DISPATCH, // value: truck index
+        DIVERSION,      // value: 0 holding full, 1 shed from holding, 2 bingo fuel
+        HELD_AT_ORIGIN, // value: 0
+        DRAW;           // value: the number drawn
+
+        private static final Kind[] VALUES = values();
+    }
+
+    private final Path path;
+    private final DataOutputStream out; // exactly one of out and in is set
+    private final DataInputStream in;
+    private long position = -1;         // number of the next decision, -1 until started
+
+    private DecisionLog(Path path, DataOutputStream out, DataInputStream in) {
+        this.path = path;
+        this.out = out;
+        this.in = in;
+    }
+
+    // A new log at 'path', replacing any existing file
+    public static DecisionLog record(Path path) {
+        try {
+            return new DecisionLog(path, new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)),
+                    null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static DecisionLog replay(Path path) {
+        try {
+            return new DecisionLog(path, null, new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isReplaying() { return in != null; }
+    public Path getPath() { return path; }
+
+    // Decisions recorded or replayed so far, counted from the start of the run
+    public long getPosition() { return position; }
+
+    // Called by the engine before its next decision, which is number 'decision'
+    void start(long decision) {
+        try {
+            if (out != null) {
+                out.writeLong(MAGIC);
+                out.writeLong(decision);
+                position = decision;
+                return;
+            }
+            if (in.readLong() != MAGIC) throw new IllegalArgumentException(path + " is not a decision log");
+            long first = in.readLong();
+            if (first > decision) {
+                throw new IllegalArgumentException(path + " starts at decision " + first + ", after " + decision);
+            }
+            in.skipNBytes((decision - first) * 17);
+            position = decision;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Records the decision, or checks it against the log when replaying
+    void decide(Kind kind, long time, int plane, int value) {
+        int logged = next(kind, time, plane, value);
+        if (in != null && logged != value) diverged(kind, time, plane, value, kind, time, plane, logged);
+    }
+
+    // Records a random draw and returns it; when replaying returns the logged draw instead
+    int draw(long time, int plane, int value) {
+        return next(Kind.DRAW, time, plane, value);
+    }
+
+    // The recorded value, which is 'value' itself when recording
+    private int next(Kind kind, long time, int plane, int value) {
+        position++;
+        try {
+            if (out != null) {
+                out.writeByte(kind.ordinal());
+                out.writeLong(time);
+                out.writeInt(plane);
+                out.writeInt(value);
+                return value;
+            }
+            Kind loggedKind;
+            long loggedTime;
+            int loggedPlane;
+            int loggedValue;
+            try {
+                loggedKind = Kind.VALUES[in.readUnsignedByte()];
+                loggedTime = in.readLong();
+                loggedPlane = in.readInt();
+                loggedValue = in.readInt();
+            } catch (EOFException e) {
+                throw new IllegalStateException("Replay diverged at decision " + (position - 1) + ": the log ended, but "
+                        + describe(kind, time, plane, value) + " was made");
+            }
+            if (loggedKind != kind || loggedTime != time || loggedPlane != plane) {
+                diverged(kind, time, plane, value, loggedKind, loggedTime, loggedPlane, loggedValue);
+            }
+            return loggedValue;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void diverged(Kind kind, long time, int plane, int value,
+                          Kind loggedKind, long loggedTime, int loggedPlane, int loggedValue) {
+        throw new IllegalStateException("Replay diverged at decision " + (position - 1) + ": logged "
+                + describe(loggedKind, loggedTime, loggedPlane, loggedValue) + ", but made "
+                + describe(kind, time, plane, value));
+    }
+
+    private static String describe(Kind kind, long time, int plane, int value) {
+        return kind + " for plane " + plane + " at " + time + " ms (" + value + ")";
+    }
+
+    // Writes out what has been recorded, so the log on disk covers a checkpoint just taken
+    void flush() {
+        if (out == null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // When replaying, throws if the log holds decisions the run never made
+    public void verifyComplete() {
+        if (in == null) return;
+        try {
+            if (in.read() >= 0) {
+                throw new IllegalStateException("Replay diverged at decision " + position
+                        + ": the run ended, but the log goes on");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (out != null) out.close();
+            else in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package airport;
+import java.util.PriorityQueue;
+
+public class EventScheduler implements SimulationClock, Scheduler {
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now = 0;          // virtual clock in ms
+    private long sequence = 0;     // tie-breaker so same-time events run in scheduling order
+    private long processed = 0;
+
+    private static class Event implements Comparable<Event> {
+        final long time;
+        final long sequence;
+        final Runnable action;
+
+        Event(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event o) {
+            int c = Long.compare(time, o.time);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    @Override
+    public long now() { return now; }
+
+    // Nothing may block on the virtual clock: schedule an event instead
+    @Override
+    public void sleep(long simulatedMillis) {
+        throw new UnsupportedOperationException("Cannot sleep on the discrete-event clock");
+    }
+
+    @Override
+    public void schedule(long delayMillis, Runnable action) {
+        if (delayMillis < 0) throw new IllegalArgumentException("Negative delay: " + delayMillis);
+        events.add(new Event(now + delayMillis, sequence++, action));
+    }
+
+    // Run until no events are left
+    public void run() {
+        Event e;
+        while ((e = events.poll()) != null) {
+            now = e.time;
+            processed++;
+            e.action.run();
+        }
+    }
+
+    public long getEventsProcessed() { return processed; }
+    public int pendingEvents() { return events.size(); }
+}
@@ -0,0 +1,28 @@
+package airport;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Where plane threads, fuel monitors and gate tasks run in the threaded model
+public enum ExecutionMode {
+    PLATFORM,   // one OS thread per task, as before
+    VIRTUAL;    // one virtual thread per task, scales to tens of thousands of planes
+
+    public ExecutorService newExecutor() {
+        if (this == VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sim-vt-", 0).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "sim-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    public static ExecutionMode parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,912 @@
+package airport;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// The discrete-event model run on a FleetStore instead of Plane objects, for
+// million-flight schedules. Planes go through the same steps with the same durations
+// as Plane.arrive(), but every queue here (events, landing priority, takeoffs, crews,
+// trucks) holds plane ids in primitive arrays, so once those have grown to the peak
+// backlog the run allocates nothing per plane. Gates come from the GateManager,
+// metrics go to the StatisticsManager and lifecycle events to TraceWriter; planes are
+// not logged one by one and emit no JFR stage events, so use --trace for detail.
+//
+// With the same seed and configuration it reproduces --engine=des exactly: the holding
+// decision (HoldingPolicy.whenFull), truck choice and job length (RefuelDispatcher) and
+// the reports are the object engines' own code. Runway dispatch and the crew queues are
+// re-implemented over plane ids, as the object versions need a wrapper or a callback per
+// plane; they must keep the same order. Deliberate differences: bingo-fuel diversion
+// and transfers only exist here, for AirportNetwork.
+//
+// In an AirportNetwork the simulation runs in windows (runUntil) and hands planes that
+// fly on, or divert, to the other airports through its Network.
+//
+// A run is fully determined by its seed and configuration, and all of its state is in
+// the arrays below, so it can be checkpointed between runUntil() calls and resumed later
+// with restore(). A DecisionLog records, or replays and checks, every choice it makes.
+public class FleetSimulation implements SimulationClock {
+    private static final int LANDING_MS = 1000;
+    private static final int TAXI_MS = 100;
+    private static final int PREPARE_MS = 1000;
+    private static final int TAKEOFF_MS = 1000;
+    private static final int FUEL_PERIOD_MS = (int) FuelMonitor.BURN_PERIOD_MS;
+    private static final int JITTER_MS = 500;
+    private static final int MAX_BURN = 22;   // most fuel one burn takes, 8 + up to 14
+    private static final int MAX_REROUTES = 1; // in a network, a plane turned away once lands at the next airport
+
+    // Event kinds; the low 4 bits of an event's kind, an argument in the rest
+    private static final int ARRIVE = 0;      // argument: SCHEDULED, RETRY or TRANSFER
+    private static final int FUEL_TICK = 1;
+    private static final int LANDED = 2;
+    private static final int AT_GATE = 3;
+    private static final int TASK_DONE = 4;   // argument: GroundOperations.Task ordinal
+    private static final int REFUEL_DONE = 5; // argument: truck index
+    private static final int READY = 6;
+    private static final int DEPARTED = 7;    // LANDED and DEPARTED: runway index
+
+    private static final int SCHEDULED = 0;   // next loaded flight, which schedules the one after
+    private static final int RETRY = 1;       // coming back after being held at origin
+    private static final int TRANSFER = 2;    // flown in from another airport of the network
+
+    private static final GroundOperations.Task[] TASKS = GroundOperations.Task.values();
+    private static final long CHECKPOINT_MAGIC = 0x4150_5443_4B50_3032L; // "APTCKP02"
+
+    private final FleetStore fleet;
+    private final StatisticsManager stats;
+    private final GateManager gateManager;
+    private final Runway[] runways;
+    private final RefuelTruck[] trucks;
+    private final List<RefuelTruck> truckList; // the same trucks, for RefuelDispatcher.choose()
+    private final long seed;
+
+    private final int[] crews;
+    private final int[] busyCrews = new int[TASKS.length];
+    private final long[] crewJobs = new long[TASKS.length];
+    private final long[] crewBusyMillis = new long[TASKS.length];
+    private final String[] crewWaitMetrics = new String[TASKS.length];
+    private final IdQueue[] crewQueues = new IdQueue[TASKS.length];
+
+    private final EventHeap events = new EventHeap();
+    private final LandingQueue landingQueue = new LandingQueue();
+    private final IdQueue takeoffQueue = new IdQueue();
+    private final IdQueue truckQueue = new IdQueue();
+
+    private int nextArrival = 1;
+    private int loaded = 0; // planes added by load(); later ones were flown in by receive()
+    private long now = 0;
+    private long processed = 0;
+    private int arrived = 0;
+    private int emergencyCounter = 0;
+    private int holdingCapacity = Integer.MAX_VALUE;
+    private HoldingPolicy holdingPolicy = HoldingPolicy.DIVERT;
+    private long originDelayMillis = 0;
+    private Network network;
+    private boolean started = false;
+    private long decisionCount = 0;
+    private DecisionLog decisions; // null = not recording or replaying
+
+    // Where planes go when they leave for another airport; see AirportNetwork
+    public interface Network {
+        // A plane leaving at 'time' with 'legs' onward flights still to fly after this one.
+        // reroutes > 0 for a plane turned away here, which never landed, so it keeps its fuel
+        // and passengers, and reroutes counts the airports that turned it away in a row.
+        void send(long time, int fuel, int passengers, int legs, int reroutes);
+    }
+
+    // One crew count per GroundOperations.Task, in declaration order
+    public FleetSimulation(FleetStore fleet, StatisticsManager stats, GateManager gateManager, List<Runway> runways,
+                           int truckCount, int[] crews, long seed) {
+        if (runways.stream().noneMatch(r -> r.accepts(true)) || runways.stream().noneMatch(r -> r.accepts(false))) {
+            throw new IllegalArgumentException("Need at least one runway for arrivals and one for departures");
+        }
+        if (truckCount < 1) throw new IllegalArgumentException("Need at least one refuel truck");
+        if (crews.length != TASKS.length) throw new IllegalArgumentException("Need a crew count for each task");
+        this.fleet = fleet;
+        this.stats = stats;
+        this.gateManager = gateManager;
+        this.runways = runways.toArray(new Runway[0]);
+        this.seed = seed;
+        this.crews = crews.clone();
+        for (GroundOperations.Task t : TASKS) {
+            if (crews[t.ordinal()] < 1) throw new IllegalArgumentException("Need at least one crew for " + t.getLabel());
+            crewWaitMetrics[t.ordinal()] = t.getWaitMetric();
+            crewQueues[t.ordinal()] = new IdQueue();
+        }
+        // Park the trucks evenly along the gates, as RefuelDispatcher does
+        int gateCount = gateManager.getGateCount();
+        this.trucks = new RefuelTruck[truckCount];
+        for (int i = 0; i < truckCount; i++) {
+            trucks[i] = new RefuelTruck(i + 1, (int) ((i + 0.5) * gateCount / truckCount));
+        }
+        this.truckList = Arrays.asList(trucks);
+    }
+
+    @Override
+    public long now() { return now; }
+
+    @Override
+    public void sleep(long simulatedMillis) {
+        throw new UnsupportedOperationException("Cannot sleep on the discrete-event clock");
+    }
+
+    // Same meaning as AirTrafficController.setHoldingPolicy()
+    public void setHoldingPolicy(HoldingPolicy policy, int capacity, long originDelayMillis) {
+        if (capacity < 1) throw new IllegalArgumentException("Holding capacity must be at least 1");
+        this.holdingPolicy = policy;
+        this.holdingCapacity = capacity;
+        this.originDelayMillis = originDelayMillis;
+    }
+
+    // Records every decision and random draw from here on, or replays them from a log; a
+    // whole-run log can be replayed by a simulation restored from a checkpoint of that run
+    public void setDecisionLog(DecisionLog log) {
+        log.start(decisionCount);
+        this.decisions = log;
+    }
+
+    // Planes then fly their onward legs, and divert, to other airports instead of leaving
+    // the simulation
+    public void setNetwork(Network network) { this.network = network; }
+
+    // The same stream Airport.newRandom(stream) gives for this seed, e.g. 0 for demo arrivals
+    public Random newRandom(long stream) {
+        return new Random(Airport.mix(seed + Airport.mix(stream)));
+    }
+
+    // Copies flights into the store. The store keeps every plane anyway, so loading the
+    // schedule first costs no extra memory and leaves run() nothing to allocate.
+    public int load(Iterator<ScheduledFlight> arrivals) {
+        int count = 0;
+        while (arrivals.hasNext()) {
+            ScheduledFlight flight = arrivals.next();
+            fleet.add(flight.arrivalMillis(), flight.fuel(), flight.passengers());
+            count++;
+        }
+        loaded = fleet.size();
+        return count;
+    }
+
+    // A plane from another airport that arrives here at 'time', which must not be in the
+    // past; negative fuel or passengers are picked as for a new plane. A rerouted plane
+    // whose fuel ran out on the way never arrives.
+    public void receive(long time, int fuel, int passengers, int legs, int reroutes) {
+        if (time < now) throw new IllegalArgumentException("Plane arrives at " + time + ", before " + now);
+        if (reroutes > 0 && fuel <= 0) {
+            stats.recordFuelExhausted();
+            return;
+        }
+        int id = fleet.add(time, fuel, passengers);
+        fleet.legs[id] = (byte) legs;
+        fleet.reroutes[id] = (byte) reroutes;
+        events.add(time, id, ARRIVE | TRANSFER << 4);
+    }
+
+    // Runs until every loaded flight has departed; returns the number of planes that arrived
+    public long run() {
+        return runUntil(Long.MAX_VALUE);
+    }
+
+    // Handles every event before 'end' and returns the number of planes that arrived so far;
+    // call again with a later end, after receive(), to continue
+    public long runUntil(long end) {
+        if (!started) {
+            started = true;
+            scheduleNextArrival();
+        }
+        while (!events.isEmpty() && events.topTime() < end) {
+            now = events.topTime();
+            int plane = events.topPlane();
+            int kind = events.topKind();
+            events.removeTop();
+            processed++;
+            handle(plane, kind & 0xF, kind >>> 4);
+        }
+        return arrived;
+    }
+
+    // Time of the next pending event, Long.MAX_VALUE once there is none
+    public long nextEventTime() { return events.isEmpty() ? Long.MAX_VALUE : events.topTime(); }
+
+    public long getEventsProcessed() { return processed; }
+    public FleetStore getFleet() { return fleet; }
+    public StatisticsManager getStatistics() { return stats; }
+    public GateManager getGateManager() { return gateManager; }
+    public long getDecisionCount() { return decisionCount; }
+
+    private void handle(int id, int type, int arg) {
+        switch (type) {
+            case ARRIVE -> arrive(id, arg);
+            case FUEL_TICK -> burnFuel(id);
+            case LANDED -> landed(id, arg);
+            case AT_GATE -> startTurnaround(id);
+            case TASK_DONE -> taskDone(id, arg);
+            case REFUEL_DONE -> refuelled(id, arg);
+            case READY -> readyForTakeoff(id);
+            case DEPARTED -> departed(id, arg);
+            default -> throw new IllegalStateException("Unknown event " + type);
+        }
+    }
+
+    private void schedule(long delay, int id, int type, int arg) {
+        events.add(now + delay, id, type | arg << 4);
+    }
+
+    private int duration(int id, int time) { return time + draw(id, JITTER_MS); }
+
+    private int draw(int id, int bound) {
+        int value = fleet.nextInt(id, bound);
+        decisionCount++;
+        return decisions == null ? value : decisions.draw(now, id, value);
+    }
+
+    private void decide(DecisionLog.Kind kind, int id, int value) {
+        decisionCount++;
+        if (decisions != null) decisions.decide(kind, now, id, value);
+    }
+
+    // ======================================
+    // ARRIVALS AND FUEL
+    // ======================================
+    // One arrival event at a time, as ArrivalFeed does
+    private void scheduleNextArrival() {
+        if (nextArrival > loaded) return;
+        int id = nextArrival++;
+        schedule(Math.max(0, fleet.arrivalTime[id] - now), id, ARRIVE, SCHEDULED);
+    }
+
+    private void arrive(int id, int how) {
+        boolean first = how != RETRY;
+        if (first) {
+            arrived++;
+            fleet.mark[id] = now; // first attempt, for the origin delay
+        }
+        fleet.arrivalTime[id] = now;
+        TraceWriter.record(TraceEvent.ARRIVED, id, -1);
+        // A plane already turned away as often as allowed, or too low on fuel to fly on,
+        // lands here whatever holding holds, ahead of the others
+        boolean mustLand = how == TRANSFER
+                && (fleet.reroutes[id] >= MAX_REROUTES || fleet.fuel[id] < HoldingPolicy.LOW_FUEL);
+        if (mustLand || admit(id)) {
+            if (!first) stats.recordOriginDelay(now - fleet.mark[id]);
+            schedule(FUEL_PERIOD_MS, id, FUEL_TICK, 0);
+            TraceWriter.record(TraceEvent.LANDING_REQUESTED, id, -1);
+            landingQueue.add(id);
+            if (mustLand) declareEmergency(id);
+            dispatch();
+        }
+        if (how == SCHEDULED) scheduleNextArrival();
+    }
+
+    // The HoldingPolicy decision AirTrafficController.admit() makes: true if the plane may
+    // join the landing queue
+    private boolean admit(int id) {
+        if (landingQueue.size() < holdingCapacity) return true;
+        int victim = holdingPolicy == HoldingPolicy.SHED_BY_FUEL ? landingQueue.mostFuel() : 0;
+        return switch (holdingPolicy.whenFull(fleet.fuel[id], victim > 0 ? fleet.fuel[victim] : -1)) {
+            case HELD_AT_ORIGIN -> {
+                decide(DecisionLog.Kind.HELD_AT_ORIGIN, id, 0);
+                TraceWriter.record(TraceEvent.HELD_AT_ORIGIN, id, -1);
+                schedule(originDelayMillis, id, ARRIVE, RETRY);
+                yield false;
+            }
+            case ADMITTED -> true;
+            case SHED -> {
+                landingQueue.remove(victim);
+                divert(victim, true, false);
+                yield true;
+            }
+            case DIVERTED -> divertArriving(id);
+        };
+    }
+
+    private boolean divertArriving(int id) {
+        divert(id, false, false);
+        return false;
+    }
+
+    private void divert(int id, boolean shed, boolean lowFuel) {
+        decide(DecisionLog.Kind.DIVERSION, id, shed ? 1 : lowFuel ? 2 : 0);
+        fleet.set(id, FleetStore.DIVERTED);
+        TraceWriter.record(TraceEvent.DIVERTED, id, -1);
+        if (network == null) {
+            stats.recordDiversion(shed);
+            return;
+        }
+        stats.recordReroute(lowFuel);
+        network.send(now, fleet.fuel[id], fleet.passengers[id], fleet.legs[id], fleet.reroutes[id] + 1);
+    }
+
+    // Burns fuel once per period until the plane is cleared, diverted or declares an emergency
+    private void burnFuel(int id) {
+        if (fleet.is(id, FleetStore.LANDING_CLEARED) || fleet.is(id, FleetStore.EMERGENCY)
+                || fleet.is(id, FleetStore.DIVERTED)) return;
+        fleet.fuel[id] -= (short) (8 + draw(id, 15));
+        if (network != null && fleet.fuel[id] >= HoldingPolicy.LOW_FUEL
+                && fleet.fuel[id] < HoldingPolicy.LOW_FUEL + MAX_BURN && fleet.reroutes[id] < MAX_REROUTES
+                && landingQueue.size() > gateManager.getGateCount()) {
+            // More planes holding than there are gates, and the next burn may leave too little
+            // to reach the alternate: go now
+            landingQueue.remove(id);
+            divert(id, false, true);
+            return;
+        }
+        if (fleet.fuel[id] > 20) {
+            schedule(FUEL_PERIOD_MS, id, FUEL_TICK, 0);
+            return;
+        }
+        declareEmergency(id);
+    }
+
+    // Moves the plane ahead of every plane not yet in an emergency
+    private void declareEmergency(int id) {
+        fleet.set(id, FleetStore.EMERGENCY);
+        TraceWriter.record(TraceEvent.EMERGENCY, id, -1);
+        if (fleet.queueSlot[id] >= 0) {
+            fleet.emergencySequence[id] = emergencyCounter++;
+            landingQueue.update(id);
+        }
+        decide(DecisionLog.Kind.EMERGENCY, id, fleet.emergencySequence[id]);
+        dispatch();
+    }
+
+    // ======================================
+    // AIR TRAFFIC CONTROL
+    // Same policy as AirTrafficController.dispatch(): takeoffs first, then the head of
+    // the landing queue once a runway and a gate are both free.
+    // ======================================
+    private void dispatch() {
+        boolean granted = true;
+        while (granted) {
+            granted = false;
+
+            if (!takeoffQueue.isEmpty()) {
+                int r = firstFree(false);
+                if (r >= 0) {
+                    int id = takeoffQueue.poll();
+                    grant(r, false);
+                    decide(DecisionLog.Kind.TAKEOFF_GRANT, id, r);
+                    TraceWriter.record(TraceEvent.TAKEOFF_CLEARED, id, runways[r].getId());
+                    schedule(runways[r].separationWait(now) + duration(id, TAKEOFF_MS), id, DEPARTED, r);
+                    granted = true;
+                }
+            }
+
+            if (!landingQueue.isEmpty() && gateManager.hasFreeGate()) {
+                int r = firstFree(true);
+                int id = landingQueue.peek();
+                int gate = r < 0 ? -1 : gateManager.tryClaimGate(id);
+                if (gate >= 0) {
+                    landingQueue.poll();
+                    grant(r, true);
+                    decide(DecisionLog.Kind.LANDING_GRANT, id, r << 16 | gate);
+                    TraceWriter.record(TraceEvent.LANDING_CLEARED, id, runways[r].getId());
+                    fleet.set(id, FleetStore.LANDING_CLEARED);
+                    fleet.gate[id] = (short) gate;
+                    stats.recordWaitingTime(now - fleet.arrivalTime[id]);
+                    schedule(runways[r].separationWait(now) + duration(id, LANDING_MS), id, LANDED, r);
+                    granted = true;
+                }
+            }
+        }
+    }
+
+    private int firstFree(boolean arrival) {
+        int best = -1;
+        for (int i = 0; i < runways.length; i++) {
+            Runway r = runways[i];
+            if (r.isFree() && r.accepts(arrival) && (best < 0 || r.getReadyAt() < runways[best].getReadyAt())) best = i;
+        }
+        return best;
+    }
+
+    private void grant(int r, boolean arrival) {
+        long gap = runways[r].takeHandoffGap(now);
+        if (gap >= 0) stats.recordRunwayHandoff(gap);
+        runways[r].occupy(arrival);
+    }
+
+    private void releaseRunway(int id, int r) {
+        TraceWriter.record(TraceEvent.RUNWAY_RELEASED, id, runways[r].getId());
+        runways[r].release(now);
+        if (!takeoffQueue.isEmpty() || !landingQueue.isEmpty()) runways[r].markReleasedWithWaiters(now);
+        dispatch();
+    }
+
+    // ======================================
+    // PLANE LIFECYCLE
+    // ======================================
+    private void landed(int id, int r) {
+        fleet.landingTime[id] = now;
+        TraceWriter.record(TraceEvent.LANDED, id, runways[r].getId());
+        TraceWriter.record(TraceEvent.DOCKED, id, fleet.gate[id]);
+        releaseRunway(id, r);
+        schedule(duration(id, TAXI_MS), id, AT_GATE, 0);
+    }
+
+    private void startTurnaround(int id) {
+        fleet.mark[id] = now;
+        fleet.pending[id] = 2;
+        requestCrew(id, 0);
+        truckQueue.add(id, now);
+        dispatchTrucks();
+    }
+
+    private void turnaroundBranchDone(int id) {
+        if (--fleet.pending[id] > 0) return;
+        stats.record(GroundOperations.TURNAROUND, now - fleet.mark[id]);
+        TraceWriter.record(TraceEvent.TURNAROUND_DONE, id, fleet.gate[id]);
+        schedule(duration(id, PREPARE_MS), id, READY, 0);
+    }
+
+    private void readyForTakeoff(int id) {
+        gateManager.releaseGate(fleet.gate[id]);
+        dispatch();
+        TraceWriter.record(TraceEvent.TAKEOFF_REQUESTED, id, -1);
+        takeoffQueue.add(id, now);
+        dispatch();
+    }
+
+    private void departed(int id, int r) {
+        fleet.departureTime[id] = now;
+        TraceWriter.record(TraceEvent.DEPARTED, id, runways[r].getId());
+        releaseRunway(id, r);
+        stats.recordPassengers(fleet.passengers[id]);
+        if (network != null && fleet.legs[id] > 0) {
+            network.send(now, fleet.fuel[id], -1, fleet.legs[id] - 1, 0); // new passengers boarded
+        } else {
+            stats.recordPlane();
+        }
+    }
+
+    // ======================================
+    // GROUND CREWS AND REFUEL TRUCKS
+    // ======================================
+    private void requestCrew(int id, int task) {
+        if (busyCrews[task] == crews[task]) {
+            crewQueues[task].add(id, now);
+            return;
+        }
+        busyCrews[task]++;
+        startTask(id, task, now);
+    }
+
+    private void startTask(int id, int task, long requestedAt) {
+        crewJobs[task]++;
+        stats.record(crewWaitMetrics[task], now - requestedAt);
+        int time = duration(id, TASKS[task].getBaseMillis());
+        crewBusyMillis[task] += time;
+        schedule(time, id, TASK_DONE, task);
+    }
+
+    private void taskDone(int id, int task) {
+        // Hand the crew straight to the next plane in line
+        IdQueue queue = crewQueues[task];
+        if (queue.isEmpty()) {
+            busyCrews[task]--;
+        } else {
+            long since = queue.peekSince();
+            startTask(queue.poll(), task, since);
+        }
+        if (task + 1 < TASKS.length) requestCrew(id, task + 1);
+        else turnaroundBranchDone(id);
+    }
+
+    // Same choice as RefuelDispatcher
+    private final RefuelDispatcher.Waiting waitingForTruck = new RefuelDispatcher.Waiting() {
+        @Override public int size() { return truckQueue.size(); }
+        @Override public int gatePosition(int i) { return fleet.gate[truckQueue.get(i)] - 1; }
+        @Override public int fuelLevel(int i) { return fleet.fuel[truckQueue.get(i)]; }
+        @Override public long requestedAt(int i) { return truckQueue.sinceAt(i); }
+    };
+
+    private void dispatchTrucks() {
+        while (!truckQueue.isEmpty()) {
+            long choice = RefuelDispatcher.choose(waitingForTruck, truckList, now);
+            if (choice < 0) return;
+            int i = (int) (choice >>> 32);
+            int t = (int) choice;
+            int id = truckQueue.get(i);
+            long since = truckQueue.sinceAt(i);
+            truckQueue.removeAt(i);
+            decide(DecisionLog.Kind.TRUCK_DISPATCH, id, t);
+
+            int position = fleet.gate[id] - 1;
+            long time = RefuelDispatcher.jobMillis(trucks[t].getPosition(), position, fleet.fuel[id]);
+            trucks[t].assign(position, time);
+            stats.record(RefuelDispatcher.TRUCK_WAIT, now - since);
+            schedule(time, id, REFUEL_DONE, t);
+        }
+    }
+
+    private void refuelled(int id, int t) {
+        fleet.fuel[id] = 100;
+        trucks[t].free();
+        dispatchTrucks();
+        turnaroundBranchDone(id);
+    }
+
+    // ======================================
+    // CHECKPOINTS
+    // ======================================
+    // Writes the configuration and the whole state to a gzip file, and flushes the decision
+    // log, if any, up to the same point; call between runUntil() calls, never from inside
+    // the run. Not supported inside an AirportNetwork.
+    public void checkpoint(Path path) {
+        if (network != null) throw new IllegalStateException("Cannot checkpoint one airport of a network");
+        if (decisions != null) decisions.flush();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(path), 1 << 16)))) {
+            out.writeLong(CHECKPOINT_MAGIC);
+            // Configuration
+            out.writeLong(seed);
+            out.writeInt(gateManager.getGateCount());
+            out.writeInt(runways.length);
+            for (Runway r : runways) {
+                out.writeInt(r.getId());
+                out.writeByte(r.getMode().ordinal());
+                out.writeLong(r.getSeparationMillis());
+            }
+            out.writeInt(trucks.length);
+            for (int c : crews) out.writeInt(c);
+            out.writeByte(holdingPolicy.ordinal());
+            out.writeInt(holdingCapacity);
+            out.writeLong(originDelayMillis);
+            // Engine state
+            out.writeBoolean(started);
+            out.writeInt(nextArrival);
+            out.writeInt(loaded);
+            out.writeLong(now);
+            out.writeLong(processed);
+            out.writeInt(arrived);
+            out.writeInt(emergencyCounter);
+            out.writeLong(decisionCount);
+            for (int i = 0; i < TASKS.length; i++) {
+                out.writeInt(busyCrews[i]);
+                out.writeLong(crewJobs[i]);
+                out.writeLong(crewBusyMillis[i]);
+                crewQueues[i].writeTo(out);
+            }
+            for (Runway r : runways) r.writeState(out);
+            for (RefuelTruck t : trucks) t.writeState(out);
+            for (int g = 1; g <= gateManager.getGateCount(); g++) out.writeInt(gateManager.getOccupantId(g));
+            stats.writeTo(out);
+            fleet.writeTo(out);
+            events.writeTo(out);
+            landingQueue.writeTo(out);
+            takeoffQueue.writeTo(out);
+            truckQueue.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A simulation in the state checkpoint() saved, with its own store, statistics and
+    // gates; run() carries on from there as the original would have
+    public static FleetSimulation restore(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path), 1 << 16)))) {
+            if (in.readLong() != CHECKPOINT_MAGIC) throw new IllegalArgumentException(path + " is not a checkpoint");
+            long seed = in.readLong();
+            int gateCount = in.readInt();
+            List<Runway> runways = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                runways.add(new Runway(in.readInt(), Runway.Mode.values()[in.readByte()], in.readLong()));
+            }
+            int truckCount = in.readInt();
+            int[] crews = new int[TASKS.length];
+            for (int i = 0; i < crews.length; i++) crews[i] = in.readInt();
+            HoldingPolicy policy = HoldingPolicy.values()[in.readByte()];
+            int capacity = in.readInt();
+            long originDelay = in.readLong();
+
+            GateManager gateManager = new GateManager(gateCount);
+            FleetSimulation sim = new FleetSimulation(new FleetStore(0, seed), new StatisticsManager(), gateManager,
+                    runways, truckCount, crews, seed);
+            sim.setHoldingPolicy(policy, capacity, originDelay);
+            sim.started = in.readBoolean();
+            sim.nextArrival = in.readInt();
+            sim.loaded = in.readInt();
+            sim.now = in.readLong();
+            sim.processed = in.readLong();
+            sim.arrived = in.readInt();
+            sim.emergencyCounter = in.readInt();
+            sim.decisionCount = in.readLong();
+            for (int i = 0; i < TASKS.length; i++) {
+                sim.busyCrews[i] = in.readInt();
+                sim.crewJobs[i] = in.readLong();
+                sim.crewBusyMillis[i] = in.readLong();
+                sim.crewQueues[i].readFrom(in);
+            }
+            for (Runway r : sim.runways) r.readState(in);
+            for (RefuelTruck t : sim.trucks) t.readState(in);
+            int[] occupants = new int[gateCount];
+            for (int g = 0; g < gateCount; g++) occupants[g] = in.readInt();
+            gateManager.restoreOccupants(occupants);
+            sim.stats.readFrom(in);
+            sim.fleet.readFrom(in);
+            sim.events.readFrom(in);
+            sim.landingQueue.readFrom(in);
+            sim.takeoffQueue.readFrom(in);
+            sim.truckQueue.readFrom(in);
+            return sim;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ======================================
+    // REPORTS, printed by the object engines' printers
+    // ======================================
+    public void printRunwayReport() { AirTrafficController.printRunwayReport(Arrays.asList(runways), now); }
+    public void printFleetReport() { RefuelDispatcher.printFleetReport(truckList, now); }
+    public void printCrewReport() { GroundOperations.printCrewReport(crews, crewJobs, crewBusyMillis, now); }
+
+    // ======================================
+    // PRIMITIVE QUEUES
+    // ======================================
+
+    // Pending events as a binary heap over parallel arrays, ordered by time and then by
+    // scheduling order, like EventScheduler
+    private static class EventHeap {
+        private long[] time = new long[1024];
+        private long[] sequence = new long[1024];
+        private int[] plane = new int[1024];
+        private int[] kind = new int[1024];
+        private int size = 0;
+        private long nextSequence = 0;
+
+        boolean isEmpty() { return size == 0; }
+        long topTime() { return time[0]; }
+        int topPlane() { return plane[0]; }
+        int topKind() { return kind[0]; }
+
+        void add(long t, int id, int k) {
+            if (size == time.length) grow();
+            long s = nextSequence++;
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(t, s, parent)) break;
+                move(parent, i);
+                i = parent;
+            }
+            set(i, t, s, id, k);
+        }
+
+        void removeTop() {
+            int last = --size;
+            if (last == 0) return;
+            long t = time[last];
+            long s = sequence[last];
+            int i = 0;
+            int half = last >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < last && earlier(child + 1, child)) child++;
+                if (before(t, s, child)) break;
+                move(child, i);
+                i = child;
+            }
+            set(i, t, s, plane[last], kind[last]);
+        }
+
+        private boolean before(long t, long s, int slot) {
+            return t < time[slot] || (t == time[slot] && s < sequence[slot]);
+        }
+
+        private boolean earlier(int a, int b) { return before(time[a], sequence[a], b); }
+
+        private void move(int from, int to) { set(to, time[from], sequence[from], plane[from], kind[from]); }
+
+        private void set(int i, long t, long s, int id, int k) {
+            time[i] = t;
+            sequence[i] = s;
+            plane[i] = id;
+            kind[i] = k;
+        }
+
+        // In heap order, so reading it back needs no sifting
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            out.writeLong(nextSequence);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(time[i]);
+                out.writeLong(sequence[i]);
+                out.writeInt(plane[i]);
+                out.writeInt(kind[i]);
+            }
+        }
+
+        void readFrom(DataInputStream in) throws IOException {
+            int n = in.readInt();
+            nextSequence = in.readLong();
+            while (time.length < n) grow();
+            for (int i = 0; i < n; i++) set(i, in.readLong(), in.readLong(), in.readInt(), in.readInt());
+            size = n;
+        }
+
+        private void grow() {
+            int n = time.length * 2;
+            time = Arrays.copyOf(time, n);
+            sequence = Arrays.copyOf(sequence, n);
+            plane = Arrays.copyOf(plane, n);
+            kind = Arrays.copyOf(kind, n);
+        }
+    }
+
+    // Planes waiting to land, emergencies first in declaration order, then by arrival
+    // time and plane id. Each plane's slot is kept in the FleetStore so an emergency can
+    // move it up in place.
+    private class LandingQueue {
+        private int[] heap = new int[1024];
+        private int size = 0;
+
+        boolean isEmpty() { return size == 0; }
+        int size() { return size; }
+        int peek() { return heap[0]; }
+
+        void add(int id) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            place(id, size++);
+            siftUp(fleet.queueSlot[id]);
+        }
+
+        int poll() {
+            int head = heap[0];
+            remove(head);
+            return head;
+        }
+
+        void remove(int id) {
+            int i = fleet.queueSlot[id];
+            int last = heap[--size];
+            fleet.queueSlot[id] = -1;
+            if (i < size) {
+                place(last, i);
+                siftDown(i);
+                siftUp(fleet.queueSlot[last]);
+            }
+        }
+
+        // The holding plane with the most fuel, emergencies excluded; 0 if there is none
+        int mostFuel() {
+            int best = 0;
+            for (int i = 0; i < size; i++) {
+                int id = heap[i];
+                if (fleet.emergencySequence[id] < 0 && (best == 0 || fleet.fuel[id] > fleet.fuel[best])) best = id;
+            }
+            return best;
+        }
+
+        // The plane's priority went up
+        void update(int id) { siftUp(fleet.queueSlot[id]); }
+
+        // Slots are in the FleetStore, so the heap is read back as it was
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) out.writeInt(heap[i]);
+        }
+
+        void readFrom(DataInputStream in) throws IOException {
+            size = in.readInt();
+            if (heap.length < size) heap = new int[Integer.highestOneBit(size) * 2];
+            for (int i = 0; i < size; i++) heap[i] = in.readInt();
+        }
+
+        private boolean before(int a, int b) {
+            int ea = fleet.emergencySequence[a];
+            int eb = fleet.emergencySequence[b];
+            if ((ea >= 0) != (eb >= 0)) return ea >= 0;
+            if (ea >= 0) return ea < eb;
+            long ta = fleet.arrivalTime[a];
+            long tb = fleet.arrivalTime[b];
+            return ta != tb ? ta < tb : a < b;
+        }
+
+        private void place(int id, int i) {
+            heap[i] = id;
+            fleet.queueSlot[id] = i;
+        }
+
+        private void siftUp(int i) {
+            int id = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(id, heap[parent])) break;
+                place(heap[parent], i);
+                i = parent;
+            }
+            place(id, i);
+        }
+
+        private void siftDown(int i) {
+            int id = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+                if (!before(heap[child], id)) break;
+                place(heap[child], i);
+                i = child;
+            }
+            place(id, i);
+        }
+    }
+
+    // FIFO ring of plane ids, each with the time it joined
+    private static class IdQueue {
+        private int[] ids = new int[256];
+        private long[] since = new long[256];
+        private int head = 0;
+        private int size = 0;
+
+        boolean isEmpty() { return size == 0; }
+        int size() { return size; }
+        int peek() { return ids[head]; }
+        long peekSince() { return since[head]; }
+        int get(int i) { return ids[(head + i) & (ids.length - 1)]; }
+        long sinceAt(int i) { return since[(head + i) & (ids.length - 1)]; }
+
+        // Removes the i-th oldest entry by moving the ones in front of it back one place
+        void removeAt(int i) {
+            int mask = ids.length - 1;
+            for (int j = i; j > 0; j--) {
+                ids[(head + j) & mask] = ids[(head + j - 1) & mask];
+                since[(head + j) & mask] = since[(head + j - 1) & mask];
+            }
+            head = (head + 1) & mask;
+            size--;
+        }
+
+        void add(int id, long time) {
+            if (size == ids.length) grow();
+            int tail = (head + size++) & (ids.length - 1);
+            ids[tail] = id;
+            since[tail] = time;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) & (ids.length - 1);
+                out.writeInt(ids[slot]);
+                out.writeLong(since[slot]);
+            }
+        }
+
+        void readFrom(DataInputStream in) throws IOException {
+            for (int n = in.readInt(); n > 0; n--) add(in.readInt(), in.readLong());
+        }
+
+        int poll() {
+            int id = ids[head];
+            head = (head + 1) & (ids.length - 1);
+            size--;
+            return id;
+        }
+
+        private void grow() {
+            int[] newIds = new int[ids.length * 2];
+            long[] newSince = new long[ids.length * 2];
+            for (int i = 0; i < size; i++) {
+                newIds[i] = ids[(head + i) & (ids.length - 1)];
+                newSince[i] = since[(head + i) & (ids.length - 1)];
+            }
+            ids = newIds;
+            since = newSince;
+            head = 0;
+        }
+    }
+}
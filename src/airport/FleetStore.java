@@ -0,0 +1,180 @@
+package airport;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Plane state as parallel primitive arrays indexed by plane id (ids start at 1, slot 0
+// is unused), for runs too large to keep a Plane object per flight. A plane costs about
+// 60 bytes across all columns and adds nothing for the garbage collector to trace;
+// the arrays double when full, which happens a handful of times per run.
+//
+// Times are simulation millis, -1 until the event has happened. Each plane also has
+// its own random stream: the state of a java.util.Random kept in a long, seeded as
+// Airport.newRandom(id) would be, so the fleet engine draws from the same
+// distributions as a Plane.
+public class FleetStore {
+    static final byte EMERGENCY = 1;
+    static final byte LANDING_CLEARED = 2;
+    static final byte DIVERTED = 4;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private final long seed;
+    private int size = 0;
+
+    short[] fuel;
+    short[] passengers;
+    long[] arrivalTime;
+    long[] landingTime;
+    long[] departureTime;
+    byte[] flags;
+    short[] gate;           // gate id once docked, -1 before
+    long[] random;          // java.util.Random state
+    // Engine bookkeeping
+    long[] mark;            // first arrival attempt, later the start of the turnaround
+    int[] emergencySequence; // landing priority once an emergency is declared, -1 before
+    int[] queueSlot;        // position in the landing heap, -1 when not queued
+    byte[] pending;         // turnaround branches still running
+    byte[] legs;            // onward flights still to fly in an AirportNetwork, 0 = stays here
+    byte[] reroutes;        // airports that turned this plane away since it last landed
+
+    public FleetStore(int initialCapacity) {
+        this(initialCapacity, 0);
+    }
+
+    public FleetStore(int initialCapacity, long seed) {
+        this.seed = seed;
+        allocate(Math.max(16, initialCapacity + 1));
+    }
+
+    private void allocate(int capacity) {
+        fuel = fuel == null ? new short[capacity] : Arrays.copyOf(fuel, capacity);
+        passengers = passengers == null ? new short[capacity] : Arrays.copyOf(passengers, capacity);
+        arrivalTime = arrivalTime == null ? new long[capacity] : Arrays.copyOf(arrivalTime, capacity);
+        landingTime = landingTime == null ? new long[capacity] : Arrays.copyOf(landingTime, capacity);
+        departureTime = departureTime == null ? new long[capacity] : Arrays.copyOf(departureTime, capacity);
+        flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+        gate = gate == null ? new short[capacity] : Arrays.copyOf(gate, capacity);
+        random = random == null ? new long[capacity] : Arrays.copyOf(random, capacity);
+        mark = mark == null ? new long[capacity] : Arrays.copyOf(mark, capacity);
+        emergencySequence = emergencySequence == null ? new int[capacity] : Arrays.copyOf(emergencySequence, capacity);
+        queueSlot = queueSlot == null ? new int[capacity] : Arrays.copyOf(queueSlot, capacity);
+        pending = pending == null ? new byte[capacity] : Arrays.copyOf(pending, capacity);
+        legs = legs == null ? new byte[capacity] : Arrays.copyOf(legs, capacity);
+        reroutes = reroutes == null ? new byte[capacity] : Arrays.copyOf(reroutes, capacity);
+    }
+
+    // Adds a plane arriving at 'arrival'; negative fuel or passengers are picked as Plane does
+    public int add(long arrival, int fuelLevel, int passengerCount) {
+        if (fuelLevel > 100 || passengerCount > ScheduledFlight.MAX_PASSENGERS) {
+            throw new IllegalArgumentException("Fuel " + fuelLevel + " or passengers " + passengerCount + " out of range");
+        }
+        int id = ++size;
+        if (id == fuel.length) allocate(fuel.length * 2);
+
+        random[id] = (Airport.mix(seed + Airport.mix(id)) ^ MULTIPLIER) & MASK;
+        passengers[id] = (short) (passengerCount >= 0 ? passengerCount : 20 + nextInt(id, 31));
+        if (fuelLevel >= 0) {
+            fuel[id] = (short) fuelLevel;
+        } else if (id == 1 || id == 3 || id == 5) {
+            fuel[id] = (short) (20 + nextInt(id, 15)); // near the emergency threshold, as in the demo
+        } else {
+            fuel[id] = (short) (70 + nextInt(id, 31));
+        }
+        arrivalTime[id] = arrival; // scheduled time until the plane arrives
+        landingTime[id] = -1;
+        departureTime[id] = -1;
+        flags[id] = 0;
+        gate[id] = -1;
+        emergencySequence[id] = -1;
+        queueSlot[id] = -1;
+        legs[id] = 0;
+        reroutes[id] = 0;
+        return id;
+    }
+
+    // Same sequence as java.util.Random.nextInt(bound) for this plane's stream
+    int nextInt(int id, int bound) {
+        int r = next(id);
+        int m = bound - 1;
+        if ((bound & m) == 0) return (int) ((bound * (long) r) >> 31);
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(id)) {}
+        return r;
+    }
+
+    private int next(int id) {
+        long s = (random[id] * MULTIPLIER + 0xBL) & MASK;
+        random[id] = s;
+        return (int) (s >>> 17);
+    }
+
+    boolean is(int id, byte flag) { return (flags[id] & flag) != 0; }
+    void set(int id, byte flag) { flags[id] |= flag; }
+
+    public int size() { return size; }
+    public int getFuel(int id) { return fuel[id]; }
+    public int getPassengers(int id) { return passengers[id]; }
+    public long getArrivalTime(int id) { return arrivalTime[id]; }
+    public long getLandingTime(int id) { return landingTime[id]; }
+    public long getDepartureTime(int id) { return departureTime[id]; }
+    public boolean isEmergency(int id) { return is(id, EMERGENCY); }
+    public boolean isDiverted(int id) { return is(id, DIVERTED); }
+    public int getGate(int id) { return gate[id]; }
+    public int getLegs(int id) { return legs[id]; }
+    public void setLegs(int id, int count) { legs[id] = (byte) count; }
+
+    public long getSeed() { return seed; }
+
+    // Every column of every plane, for a FleetSimulation checkpoint
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int id = 1; id <= size; id++) {
+            out.writeShort(fuel[id]);
+            out.writeShort(passengers[id]);
+            out.writeLong(arrivalTime[id]);
+            out.writeLong(landingTime[id]);
+            out.writeLong(departureTime[id]);
+            out.writeByte(flags[id]);
+            out.writeShort(gate[id]);
+            out.writeLong(random[id]);
+            out.writeLong(mark[id]);
+            out.writeInt(emergencySequence[id]);
+            out.writeInt(queueSlot[id]);
+            out.writeByte(pending[id]);
+            out.writeByte(legs[id]);
+            out.writeByte(reroutes[id]);
+        }
+    }
+
+    // Reads what writeTo() wrote into an empty store with the same seed
+    void readFrom(DataInputStream in) throws IOException {
+        if (size != 0) throw new IllegalStateException("Store already has planes");
+        int count = in.readInt();
+        if (count + 1 > fuel.length) allocate(count + 1);
+        for (int id = 1; id <= count; id++) {
+            fuel[id] = in.readShort();
+            passengers[id] = in.readShort();
+            arrivalTime[id] = in.readLong();
+            landingTime[id] = in.readLong();
+            departureTime[id] = in.readLong();
+            flags[id] = in.readByte();
+            gate[id] = in.readShort();
+            random[id] = in.readLong();
+            mark[id] = in.readLong();
+            emergencySequence[id] = in.readInt();
+            queueSlot[id] = in.readInt();
+            pending[id] = in.readByte();
+            legs[id] = in.readByte();
+            reroutes[id] = in.readByte();
+        }
+        size = count;
+    }
+
+    // Bytes held by the columns, including spare capacity
+    public long footprintBytes() {
+        long perPlane = 2 + 2 + 8 + 8 + 8 + 1 + 2 + 8 + 8 + 4 + 4 + 1 + 1 + 1;
+        return perPlane * fuel.length;
+    }
+}
@@ -0,0 +1,90 @@
+package airport;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Lock-free set of free gate slots: one bit per gate plus a count of free gates.
+// "Any free?" is a single read; claim and release are a CAS on one 64-gate word,
+// so even a 300-gate hub touches at most 5 words. Threads that must wait for a gate
+// park here and are woken by release(); callers that never wait pay nothing for it.
+public class FreeGateIndex {
+    private final AtomicLongArray freeBits;
+    private final AtomicInteger freeCount;
+    private final int size;
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    public FreeGateIndex(int size) {
+        this.size = size;
+        this.freeBits = new AtomicLongArray((size + 63) / 64);
+        for (int i = 0; i < size; i++) {
+            freeBits.set(i >>> 6, freeBits.get(i >>> 6) | (1L << i));
+        }
+        this.freeCount = new AtomicInteger(size);
+    }
+
+    // Claims the lowest free slot, or returns -1 if none is free
+    public int claim() {
+        // Reserve a slot first so the scan below is guaranteed to find a set bit
+        int free;
+        do {
+            free = freeCount.get();
+            if (free <= 0) return -1;
+        } while (!freeCount.compareAndSet(free, free - 1));
+
+        while (true) {
+            for (int w = 0; w < freeBits.length(); w++) {
+                long bits;
+                while ((bits = freeBits.get(w)) != 0) {
+                    long lowest = Long.lowestOneBit(bits);
+                    if (freeBits.compareAndSet(w, bits, bits & ~lowest)) {
+                        return (w << 6) + Long.numberOfTrailingZeros(lowest);
+                    }
+                }
+            }
+            // A gate was freed in a word this scan had already passed; go round again
+            Thread.onSpinWait();
+        }
+    }
+
+    // Claims the lowest free slot, parking until one is released if none is free
+    public int claimOrWait() throws InterruptedException {
+        int slot = claim();
+        if (slot >= 0) return slot;
+
+        Thread me = Thread.currentThread();
+        waiters.add(me);
+        try {
+            // Enqueued before retrying, so a release from here on is bound to unpark us
+            while ((slot = claim()) < 0) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+            return slot;
+        } finally {
+            waiters.remove(me);
+            // Several releases may all have woken us; hand any spare gate to the next waiter
+            if (hasFree()) wakeWaiter();
+        }
+    }
+
+    private void wakeWaiter() {
+        Thread next = waiters.peek();
+        if (next != null) LockSupport.unpark(next);
+    }
+
+    public void release(int slot) {
+        if (slot < 0 || slot >= size) throw new IllegalArgumentException("No such gate slot: " + slot);
+        long mask = 1L << slot;
+        long prev = freeBits.getAndAccumulate(slot >>> 6, mask, (a, b) -> a | b);
+        if ((prev & mask) != 0) throw new IllegalStateException("Gate slot " + slot + " released twice");
+        freeCount.incrementAndGet(); // publish only after the bit is visible
+        wakeWaiter();
+    }
+
+    public boolean hasFree() { return freeCount.get() > 0; }
+
+    public int freeCount() { return freeCount.get(); }
+
+    public int size() { return size; }
+}
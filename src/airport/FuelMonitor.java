@@ -0,0 +1,103 @@
+package airport;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Burns fuel for every holding plane from one shared timer wheel instead of a sleeping
+// thread per plane. The wheel has SLOTS buckets and advances one bucket per tick, so a
+// plane is visited once per burn period in a single batched pass with the others in
+// its bucket. Memory is one queue node per holding plane and there is at most one thread.
+// In discrete-event runs the event queue already is a timer, so each holding plane gets
+// its own burn event every BURN_PERIOD_MS instead, exactly on time as in FleetSimulation;
+// quantising burns to the wheel would shift every plane's draws against the fleet engine.
+// The threaded ticker never waits on ATC: emergency alerts go out on their own virtual
+// threads, so a busy ATC lock cannot hold up the burn for everyone else.
+public class FuelMonitor {
+    private static final int SLOTS = 10;
+    private static final long TICK_MS = 100; // SLOTS * TICK_MS = 1 s between burns, as before
+    static final long BURN_PERIOD_MS = SLOTS * TICK_MS;
+
+    private final ConcurrentLinkedQueue<Plane>[] wheel;
+    private final AtomicInteger holding = new AtomicInteger();
+    private volatile int cursor = 0; // bucket the next tick processes; only the ticker writes it
+
+    private final EventScheduler sim;   // discrete-event mode, null when threaded
+    private final Executor alerts;      // delivers emergency alerts to ATC
+    private ScheduledExecutorService ticker; // threaded mode only
+
+    @SuppressWarnings("unchecked")
+    private FuelMonitor(EventScheduler sim, Executor alerts) {
+        this.sim = sim;
+        this.alerts = alerts;
+        this.wheel = (ConcurrentLinkedQueue<Plane>[]) new ConcurrentLinkedQueue<?>[SLOTS];
+        for (int i = 0; i < SLOTS; i++) wheel[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    // Ticks on one daemon thread in wall-clock time
+    public static FuelMonitor threaded() {
+        return threaded(SimulationClock.WALL);
+    }
+
+    // Ticks on one daemon thread, every TICK_MS of the clock's simulated time
+    public static FuelMonitor threaded(SimulationClock clock) {
+        ThreadFactory alertThreads = Thread.ofVirtual().name("emergency-alert").factory();
+        FuelMonitor monitor = new FuelMonitor(null, r -> alertThreads.newThread(r).start());
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fuel-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = clock.realNanos(TICK_MS);
+        ticker.scheduleAtFixedRate(monitor::tick, period, period, TimeUnit.NANOSECONDS);
+        monitor.ticker = ticker;
+        return monitor;
+    }
+
+    // One burn event per holding plane on the virtual clock
+    public static FuelMonitor discreteEvent(EventScheduler sim) {
+        return new FuelMonitor(sim, Runnable::run); // same event, so runs stay deterministic
+    }
+
+    public void register(Plane plane) {
+        holding.incrementAndGet();
+        if (sim != null) {
+            sim.schedule(BURN_PERIOD_MS, () -> burn(plane));
+            return;
+        }
+        // The bucket just behind the cursor comes round again in SLOTS ticks
+        wheel[(cursor + SLOTS - 1) % SLOTS].add(plane);
+    }
+
+    private void burn(Plane plane) {
+        if (plane.onFuelTick()) sim.schedule(BURN_PERIOD_MS, () -> burn(plane));
+        else holding.decrementAndGet();
+    }
+
+    public int getHoldingCount() { return holding.get(); }
+
+    // Stops the threaded ticker; planes still holding burn no more fuel
+    public void stop() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    // Called from a tick when a plane declares an emergency
+    void alert(Runnable notifyAtc) {
+        alerts.execute(notifyAtc);
+    }
+
+    private void tick() {
+        ConcurrentLinkedQueue<Plane> bucket = wheel[cursor];
+        // Only the planes present now; survivors go back to the tail for the next round
+        for (int n = bucket.size(); n > 0; n--) {
+            Plane plane = bucket.poll();
+            if (plane == null) break;
+            if (plane.onFuelTick()) bucket.add(plane);
+            else holding.decrementAndGet();
+        }
+        cursor = (cursor + 1) % SLOTS;
+    }
+}
@@ -2,25 +2,23 @@ package airport;
 
 public class Gate {
     private final int gateId;
-    private boolean occupied = false;
+    private volatile boolean occupied = false;
+    private volatile int occupantId = -1; // plane id, for the trace
 
     public Gate(int id) { this.gateId = id; }
 
-    public synchronized boolean isOccupied() { return occupied; }
+    public boolean isOccupied() { return occupied; }
 
-    public synchronized void occupy(Plane plane) {
-        occupied = true;
-        AirportLogger.log(plane.getName(), "docked at Gate " + gateId);
-    }
-
-    public synchronized void release() {
+    public void release() {
         occupied = false;
-        AirportLogger.log("Gate", gateId + " is now free.");
+        AirportLogger.log("Gate", () -> gateId + " is now free.");
     }
 
     public int getGateId() { return gateId; }
+    public int getOccupantId() { return occupantId; }
 
-    public void setOccupied(boolean b) {
-        this.occupied = b;
+    void assign(int planeId) {
+        occupied = true;
+        occupantId = planeId;
     }
 }
@@ -1,91 +1,134 @@
 package airport;
 
-import java.util.concurrent.Semaphore;
 import java.util.ArrayList;
 import java.util.List;
 
 public class GateManager {
-    private final Semaphore gateSlots;
     private final List<Gate> gates = new ArrayList<>();
+    private final FreeGateIndex freeGates; // slot i is gates.get(i)
 
     public GateManager(int gateCount) {
-        this.gateSlots = new Semaphore(gateCount, true);
+        this.freeGates = new FreeGateIndex(gateCount);
         for (int i = 1; i <= gateCount; i++) gates.add(new Gate(i));
     }
 
+    // Waits until a gate is free; null if the thread is interrupted while waiting
     public Gate requestGate(Plane plane) {
-        AirportLogger.log("GateManager", plane.getName() + " requesting gate...");
+        AirportLogger.log("GateManager", () -> plane.getName() + " requesting gate...");
         try {
-            gateSlots.acquire();
+            return assign(freeGates.claimOrWait(), plane);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            return null;
         }
+    }
 
-        synchronized (gates) {
-            for (Gate g : gates) {
-                if (!g.isOccupied()) {
-                    g.setOccupied(true);
-                    AirportLogger.log("GateManager",
-                            "Gate " + g.getGateId() + " assigned to " + plane.getName());
-                    AirportLogger.log("GateManager", getGateStatusSummary());
-                    return g;
-                }
-            }
+    // Non-blocking variant for the discrete-event engine: null if every gate is taken
+    public Gate tryRequestGate(Plane plane) {
+        AirportLogger.log("GateManager", () -> plane.getName() + " requesting gate...");
+        int slot = freeGates.claim();
+        return slot < 0 ? null : assign(slot, plane);
+    }
+
+    // Takes a gate for a plane being cleared to land, without blocking: null if none is free.
+    // The gate stays taken until the plane docks with dock() and later releases it.
+    public GateReservation tryReserveGate(Plane plane) {
+        int slot = freeGates.claim();
+        return slot < 0 ? null : new GateReservation(assign(slot, plane), plane);
+    }
+
+    // Id-based variants for the fleet engine, which has no Plane objects: the gate id
+    // taken for the plane, or -1 if none is free
+    public int tryClaimGate(int planeId) {
+        int slot = freeGates.claim();
+        if (slot < 0) return -1;
+        Gate g = gates.get(slot);
+        g.assign(planeId);
+        TraceWriter.record(TraceEvent.GATE_RESERVED, planeId, g.getGateId());
+        return g.getGateId();
+    }
+
+    public void releaseGate(int gateId) {
+        releaseGate(gates.get(gateId - 1));
+    }
+
+    // Plane id at the gate, or -1 if it is free
+    public int getOccupantId(int gateId) {
+        Gate g = gates.get(gateId - 1);
+        return g.isOccupied() ? g.getOccupantId() : -1;
+    }
+
+    // Puts planes back at the gates they held when a checkpoint was taken; occupants[i] is
+    // gate i + 1's plane or -1. Only for a manager nothing has claimed gates from yet.
+    void restoreOccupants(int[] occupants) {
+        if (occupants.length != gates.size()) throw new IllegalArgumentException("Checkpoint has "
+                + occupants.length + " gates, not " + gates.size());
+        // Claiming every gate lowest first and giving back the free ones leaves the same bits set
+        for (int occupant : occupants) tryClaimGate(Math.max(occupant, 0));
+        for (int i = 0; i < occupants.length; i++) {
+            if (occupants[i] < 0) releaseGate(i + 1);
         }
+    }
 
-        // Should never reach here due to semaphore control
-        throw new IllegalStateException("No free gates after semaphore acquire");
+    public Gate dock(GateReservation reservation) {
+        Gate g = reservation.redeem();
+        AirportLogger.log("GateManager",
+                () -> reservation.getPlane().getName() + " docking at reserved Gate " + g.getGateId());
+        return g;
+    }
+
+    private Gate assign(int slot, Plane plane) {
+        Gate g = gates.get(slot);
+        g.assign(plane.getId());
+        TraceWriter.record(TraceEvent.GATE_RESERVED, plane.getId(), g.getGateId());
+        AirportLogger.log("GateManager",
+                () -> "Gate " + g.getGateId() + " assigned to " + plane.getName());
+        AirportLogger.log("GateManager", this::getGateStatusSummary);
+        return g;
     }
 
     public void releaseGate(Gate gate) {
+        TraceWriter.record(TraceEvent.GATE_RELEASED, gate.getOccupantId(), gate.getGateId());
         gate.release();
-        AirportLogger.log("GateManager", "Gate " + gate.getGateId() + " released.");
+        freeGates.release(gate.getGateId() - 1);
+        AirportLogger.log("GateManager", () -> "Gate " + gate.getGateId() + " released.");
         printGateStatus();
-        gateSlots.release();
     }
 
     private void printGateStatus() {
-        synchronized (gates) {
+        AirportLogger.log("GateManager", () -> {
             StringBuilder sb = new StringBuilder("Current Gates: ");
             for (Gate g : gates) {
                 sb.append("[Gate ").append(g.getGateId()).append(": ").append(g.isOccupied() ? "OCCUPIED" : "FREE").append("] ");
             }
-            AirportLogger.log("GateManager", sb.toString());
-        }
+            return sb.toString();
+        });
     }
 
     public boolean hasFreeGate() {
-        synchronized (gates) {
-            for (Gate g : gates) {
-                if (!g.isOccupied()) return true;
-            }
-        }
-        return false;
+        return freeGates.hasFree();
+    }
+
+    public int getFreeGateCount() {
+        return freeGates.freeCount();
     }
 
     public boolean allGatesEmpty() {
-        synchronized (gates) {
-            for (Gate g : gates) {
-                if (g.isOccupied()) {
-                    return false;
-                }
-            }
-            return true;
-        }
+        return freeGates.freeCount() == freeGates.size();
     }
 
+    public int getGateCount() { return gates.size(); }
+
     public String getGateStatusSummary() {
-        synchronized (gates) {
-            StringBuilder sb = new StringBuilder("Gates: ");
-            for (Gate g : gates) {
-                sb.append("[")
-                        .append(g.getGateId())
-                        .append(": ")
-                        .append(g.isOccupied() ? "OCC" : "FREE")
-                        .append("] ");
-            }
-            return sb.toString().trim();
+        StringBuilder sb = new StringBuilder("Gates: ");
+        for (Gate g : gates) {
+            sb.append("[")
+                    .append(g.getGateId())
+                    .append(": ")
+                    .append(g.isOccupied() ? "OCC" : "FREE")
+                    .append("] ");
         }
+        return sb.toString().trim();
     }
 
 }
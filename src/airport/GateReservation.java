@@ -0,0 +1,23 @@
+package airport;
+
+// A gate held for one plane from the moment it is cleared to land until it docks, so
+// no other plane can take it while this one is still on the runway. Redeemed once.
+public class GateReservation {
+    private final Gate gate;
+    private final Plane plane;
+    private boolean redeemed = false;
+
+    GateReservation(Gate gate, Plane plane) {
+        this.gate = gate;
+        this.plane = plane;
+    }
+
+    public Gate getGate() { return gate; }
+    public Plane getPlane() { return plane; }
+
+    synchronized Gate redeem() {
+        if (redeemed) throw new IllegalStateException("Reservation for Gate " + gate.getGateId() + " already redeemed");
+        redeemed = true;
+        return gate;
+    }
+}
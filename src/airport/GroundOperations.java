@@ -0,0 +1,117 @@
+package airport;
+import airport.StageEvent.Stage;
+import java.util.concurrent.CompletableFuture;
+
+// Schedules a plane's turnaround at the gate as a dependency graph:
+//
+//   disembark -> clean -> embark ─┐
+//   refuel ───────────────────────┴─> ready for takeoff
+//
+// Each passenger task needs a crew from its bounded pool, and nothing holds a thread
+// while it waits or works. Continuations run on the Scheduler: the virtual clock in
+// discrete-event runs, a shared work-stealing pool in the threaded model.
+public class GroundOperations {
+    public static final String TURNAROUND = "Gate Turnaround";
+
+    public enum Task {
+        DISEMBARK(Stage.DISEMBARK, 2000),
+        CLEANING(Stage.CLEANING, 2500),
+        EMBARK(Stage.EMBARK, 2000);
+
+        private final Stage stage;
+        private final int baseMillis;
+
+        Task(Stage stage, int baseMillis) {
+            this.stage = stage;
+            this.baseMillis = baseMillis;
+        }
+
+        public String getLabel() { return stage.getLabel(); }
+        public int getBaseMillis() { return baseMillis; }
+        public String getWaitMetric() { return "Crew Wait (" + stage.getLabel() + ")"; }
+    }
+
+    private final CrewPool[] pools = new CrewPool[Task.values().length];
+    private final RefuelDispatcher refuelDispatcher;
+    private final StatisticsManager stats;
+    private final SimulationClock clock;
+    private final Scheduler scheduler;
+    private final long startTime;
+
+    // One crew count per Task, in declaration order
+    public GroundOperations(int[] crews, RefuelDispatcher refuelDispatcher, StatisticsManager stats,
+                            SimulationClock clock, Scheduler scheduler) {
+        if (crews.length != pools.length) throw new IllegalArgumentException("Need a crew count for each task");
+        for (Task t : Task.values()) pools[t.ordinal()] = new CrewPool(t.getLabel(), crews[t.ordinal()]);
+        this.refuelDispatcher = refuelDispatcher;
+        this.stats = stats;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.startTime = clock.now();
+    }
+
+    // The crews when none are given: one of each kind per gate, so crews never limit a full apron
+    public static int[] defaultCrews(int gateCount) {
+        return new int[] {gateCount, gateCount, gateCount};
+    }
+
+    // Completes once the plane is boarded and refuelled
+    public CompletableFuture<Void> turnaround(Plane plane, Gate gate) {
+        long docked = clock.now();
+        CompletableFuture<Void> passengers = perform(plane, Task.DISEMBARK)
+                .thenCompose(v -> perform(plane, Task.CLEANING))
+                .thenCompose(v -> perform(plane, Task.EMBARK));
+
+        CompletableFuture<Void> fuel = new CompletableFuture<>();
+        refuelDispatcher.refuel(plane, gate, scheduler, () -> fuel.complete(null));
+
+        return passengers.thenCombine(fuel, (a, b) -> {
+            stats.record(TURNAROUND, clock.now() - docked);
+            AirportLogger.log(plane.getName(), "Turnaround complete: boarded and refuelled.");
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> perform(Plane plane, Task task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CrewPool pool = pools[task.ordinal()];
+        long requested = clock.now();
+        pool.acquire(() -> {
+            long start = clock.now();
+            stats.record(task.getWaitMetric(), start - requested);
+            long duration = plane.taskDuration(task.baseMillis);
+            AirportLogger.log(plane.getName(), task.getLabel());
+            scheduler.schedule(duration, () -> {
+                StageEvent.emit(plane.getName(), task.stage, start, clock.now());
+                pool.release(duration);
+                done.complete(null);
+            });
+        });
+        return done;
+    }
+
+    public int getQueueLength(Task task) { return pools[task.ordinal()].getQueueLength(); }
+
+    public void printCrewReport() {
+        int[] crews = new int[pools.length];
+        long[] jobs = new long[pools.length];
+        long[] busyMillis = new long[pools.length];
+        for (int i = 0; i < pools.length; i++) {
+            crews[i] = pools[i].getCrews();
+            jobs[i] = pools[i].getJobs();
+            busyMillis[i] = pools[i].getBusyMillis();
+        }
+        printCrewReport(crews, jobs, busyMillis, clock.now() - startTime);
+    }
+
+    // Shared with FleetSimulation, so both engines report alike; arrays indexed by Task ordinal
+    static void printCrewReport(int[] crews, long[] jobs, long[] busyMillis, long elapsedMillis) {
+        long elapsed = Math.max(1, elapsedMillis);
+        System.out.println("\n--- GROUND CREWS ---");
+        for (Task t : Task.values()) {
+            int i = t.ordinal();
+            System.out.printf("%s: %d crews, %d jobs, %.1f%% utilization%n", t.getLabel(), crews[i], jobs[i],
+                    100.0 * busyMillis[i] / (elapsed * crews[i]));
+        }
+    }
+}
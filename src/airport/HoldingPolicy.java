@@ -0,0 +1,37 @@
+package airport;
+
+// What the ATC does with an arriving plane when the holding pattern is full
+public enum HoldingPolicy {
+    DIVERT,          // send the arriving plane to its alternate airport
+    HOLD_AT_ORIGIN,  // keep it on the ground at its origin and let it try again later
+    SHED_BY_FUEL;    // divert whichever plane, arriving or holding, has the most fuel to reach an alternate;
+                     // emergencies are never shed
+
+    // A plane with less fuel than this cannot make its alternate, so it is never diverted
+    // or shed; the demo's low-fuel planes arrive with 20-34
+    public static final int LOW_FUEL = 35;
+
+    // What happens to a plane arriving while holding is full
+    public enum Outcome {
+        ADMITTED,       // the arriving plane joins holding anyway, as it is too low on fuel to go elsewhere
+        HELD_AT_ORIGIN, // the arriving plane waits at its origin
+        SHED,           // the holding plane with the most fuel goes to its alternate, the arriving one joins
+        DIVERTED        // the arriving plane goes to its alternate
+    }
+
+    // The decision both engines make. holdingFuel is the fuel of the holding plane with the
+    // most, leaving out emergencies, or -1 if there is none.
+    public Outcome whenFull(int arrivingFuel, int holdingFuel) {
+        Outcome divert = arrivingFuel < LOW_FUEL ? Outcome.ADMITTED : Outcome.DIVERTED;
+        return switch (this) {
+            case DIVERT -> divert;
+            case HOLD_AT_ORIGIN -> Outcome.HELD_AT_ORIGIN;
+            case SHED_BY_FUEL -> holdingFuel > arrivingFuel && holdingFuel >= LOW_FUEL ? Outcome.SHED : divert;
+        };
+    }
+
+    // Accepts the enum name or a lower-case form with dashes, e.g. "hold-at-origin"
+    public static HoldingPolicy parse(String name) {
+        return valueOf(name.toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,149 @@
+package airport;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+// Binary heap whose elements remember their own slot, so removing or re-prioritizing
+// a known element is O(log n) instead of a linear search. Not thread-safe: callers
+// guard it with their own lock.
+public class IndexedPriorityQueue<E extends IndexedPriorityQueue.Handle> {
+    // Base class for queue elements; the index is owned by the queue
+    public static class Handle {
+        int heapIndex = -1;
+
+        public boolean isQueued() { return heapIndex >= 0; }
+    }
+
+    private final Comparator<? super E> comparator;
+    private Handle[] heap = new Handle[16];
+    private int size = 0;
+
+    public IndexedPriorityQueue(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void add(E e) {
+        if (e.heapIndex >= 0) throw new IllegalStateException("Element is already queued");
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        place(e, size++);
+        siftUp(e.heapIndex);
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() { return size == 0 ? null : (E) heap[0]; }
+
+    public E poll() {
+        E head = peek();
+        if (head != null) remove(head);
+        return head;
+    }
+
+    public boolean remove(E e) {
+        int i = e.heapIndex;
+        if (i < 0) return false;
+        Handle last = heap[--size];
+        heap[size] = null;
+        e.heapIndex = -1;
+        if (i < size) {
+            place(last, i);
+            siftDown(i);
+            siftUp(last.heapIndex);
+        }
+        return true;
+    }
+
+    // Restore heap order after the element's priority changed
+    public void update(E e) {
+        if (e.heapIndex < 0) throw new IllegalStateException("Element is not queued");
+        siftUp(e.heapIndex);
+        siftDown(e.heapIndex);
+    }
+
+    // Visits every element in heap order, which is not priority order
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        for (int i = 0; i < size; i++) action.accept((E) heap[i]);
+    }
+
+    // Visits up to 'limit' elements in priority order without disturbing the heap.
+    // Uses a small frontier heap of slots, so the cost is O(limit log limit).
+    @SuppressWarnings("unchecked")
+    public void forEachInOrder(int limit, Consumer<? super E> action) {
+        int n = Math.min(limit, size);
+        if (n == 0) return;
+        int[] frontier = new int[n + 1]; // each pop adds at most two children, at most n pops
+        int count = 0;
+        frontier[count++] = 0;
+        for (int visited = 0; visited < n; visited++) {
+            int slot = frontier[0];
+            frontier[0] = frontier[--count];
+            siftDownSlots(frontier, count, 0);
+
+            action.accept((E) heap[slot]);
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                if (count == frontier.length) frontier = Arrays.copyOf(frontier, count * 2);
+                frontier[count] = child;
+                siftUpSlots(frontier, count++);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Handle a, Handle b) { return comparator.compare((E) a, (E) b); }
+
+    private void place(Handle e, int i) {
+        heap[i] = e;
+        e.heapIndex = i;
+    }
+
+    private void siftUp(int i) {
+        Handle e = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(e, heap[parent]) >= 0) break;
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(e, i);
+    }
+
+    private void siftDown(int i) {
+        Handle e = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0) child++;
+            if (compare(e, heap[child]) <= 0) break;
+            place(heap[child], i);
+            i = child;
+        }
+        place(e, i);
+    }
+
+    private void siftUpSlots(int[] slots, int i) {
+        int s = slots[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(heap[s], heap[slots[parent]]) >= 0) break;
+            slots[i] = slots[parent];
+            i = parent;
+        }
+        slots[i] = s;
+    }
+
+    private void siftDownSlots(int[] slots, int count, int i) {
+        if (count == 0) return;
+        int s = slots[i];
+        while (2 * i + 1 < count) {
+            int child = 2 * i + 1;
+            if (child + 1 < count && compare(heap[slots[child + 1]], heap[slots[child]]) < 0) child++;
+            if (compare(heap[s], heap[slots[child]]) <= 0) break;
+            slots[i] = slots[child];
+            i = child;
+        }
+        slots[i] = s;
+    }
+}
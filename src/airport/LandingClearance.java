@@ -0,0 +1,9 @@
+package airport;
+
+// What a plane gets when cleared to land: the runway and the gate already reserved for it.
+// A plane shed from a full holding pattern gets DIVERTED instead.
+public record LandingClearance(Runway runway, GateReservation gate) {
+    public static final LandingClearance DIVERTED = new LandingClearance(null, null);
+
+    public boolean isCleared() { return runway != null; }
+}
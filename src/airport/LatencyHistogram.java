@@ -0,0 +1,130 @@
+package airport;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-memory, log-linear histogram in the style of HdrHistogram. Values below 128
+// are counted exactly; above that each power of two is split into 64 buckets, so any
+// recorded value is reported within 1.6%. Recording is a couple of atomic adds and
+// never blocks; snapshot() can be taken while other threads keep recording.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;   // 128 exact buckets
+    private static final int HALF = SUB_COUNT >> 1;       // 64 buckets per power of two
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    // Adds every value of another snapshot, e.g. when merging replicas or shards
+    public void add(Snapshot other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (other.counts[i] != 0) counts.addAndGet(i, other.counts[i]);
+        }
+        total.add(other.count);
+        sum.add(other.sum);
+        if (other.count > 0) {
+            min.accumulate(other.min);
+            max.accumulate(other.max);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        // Use the bucket total so percentiles stay consistent with the copied counts
+        return new Snapshot(copy, n, sum.sum(), n == 0 ? 0 : min.get(), n == 0 ? 0 : max.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1); // value >>> exp is in [64, 128)
+        return SUB_COUNT + (exp - 1) * HALF + (int) ((value >>> exp) - HALF);
+    }
+
+    // Middle of the bucket's value range
+    static long valueOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int exp = (index - SUB_COUNT) / HALF + 1;
+        long low = (long) ((index - SUB_COUNT) % HALF + HALF) << exp;
+        return low + ((1L << exp) >> 1);
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        // Only the non-empty buckets, for checkpoints
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(count);
+            out.writeLong(sum);
+            out.writeLong(min);
+            out.writeLong(max);
+            int used = 0;
+            for (long c : counts) if (c != 0) used++;
+            out.writeInt(used);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) continue;
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+
+        static Snapshot readFrom(DataInputStream in) throws IOException {
+            long count = in.readLong();
+            long sum = in.readLong();
+            long min = in.readLong();
+            long max = in.readLong();
+            long[] counts = new long[BUCKETS];
+            for (int used = in.readInt(); used > 0; used--) counts[in.readUnsignedShort()] = in.readLong();
+            return new Snapshot(counts, count, sum, min, max);
+        }
+
+        public long getCount() { return count; }
+        public long getMin() { return min; }
+        public long getMax() { return max; }
+        public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+
+        // q in [0, 1], e.g. 0.99 for p99
+        public long percentile(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(Math.max(valueOf(i), min), max);
+            }
+            return max;
+        }
+    }
+}
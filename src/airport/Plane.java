@@ -1,156 +1,283 @@
 package airport;
+import airport.StageEvent.Stage;
 import java.util.Random;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 
 public class Plane implements Runnable {
     private final int id;
+    private final String name;
     private final int passengerCount;
+    private final String aircraftType; // informational, from the schedule
     private final AirTrafficController atc;
     private final GateManager gateManager;
-    private final RefuelTruck refuelTruck;
+    private final GroundOperations groundOperations;
     private final StatisticsManager stats;
-    private final Random rand = new Random();
+    private final FuelMonitor fuelMonitor;
+    private final SimulationClock clock;
+    private final Random rand;
 
-    private int fuelLevel;
-    private boolean emergency = false;
+    private volatile int fuelLevel; // burnt by the fuel monitor, read by ATC and refuelling
+    private volatile boolean emergency = false;
+    private volatile boolean leftHolding = false; // cleared to land or diverted
     private long arrivalTime;
+    private long firstArrivalTime = -1; // differs from arrivalTime once held at origin
 
-    public Plane(int id, AirTrafficController atc, GateManager gateManager,
-                 RefuelTruck refuelTruck, StatisticsManager stats) {
+    // Discrete-event state
+    private EventScheduler sim;
+    private Gate gate;
+
+    public Plane(int id, Airport airport) {
+        this(id, "Plane-" + id, airport, -1, -1, null);
+    }
+
+    // A flight from an arrival schedule, which fixes its fuel and passengers
+    public Plane(int id, Airport airport, ScheduledFlight flight) {
+        this(id, flight.flightId(), airport, flight.fuel(), flight.passengers(), flight.aircraftType());
+    }
+
+    private Plane(int id, String name, Airport airport, int fuel, int passengers, String aircraftType) {
         this.id = id;
-        this.passengerCount = 20 + rand.nextInt(31); // between 20–50 passengers
-        this.atc = atc;
-        this.gateManager = gateManager;
-        this.refuelTruck = refuelTruck;
-        this.stats = stats;
+        this.name = name;
+        this.aircraftType = aircraftType;
+        this.rand = airport.newRandom(id);
+        this.passengerCount = passengers >= 0 ? passengers : 20 + rand.nextInt(31); // between 20–50 passengers
+        this.atc = airport.getAtc();
+        this.gateManager = airport.getGateManager();
+        this.groundOperations = airport.getGroundOperations();
+        this.stats = airport.getStats();
+        this.fuelMonitor = airport.getFuelMonitor();
+        this.clock = airport.getClock();
 
-        if (id == 1 || id == 3 || id == 5) {
+        if (fuel >= 0) {
+            this.fuelLevel = fuel;
+        } else if (id == 1 || id == 3 || id == 5) {
             this.fuelLevel = 20 + rand.nextInt(15); // 20-35 (near emergency threshold)
         } else {
             this.fuelLevel = 70 + rand.nextInt(31); // 70-100 (safe range)
         }
     }
 
-    public String getName() { return "Plane-" + id; }
+    public int getId() { return id; }
+    public String getName() { return name; }
     public boolean isEmergency() { return emergency; }
+    public int getFuelLevel() { return fuelLevel; }
+    public String getAircraftType() { return aircraftType; }
+
+    void refuelled() { fuelLevel = 100; }
 
     @Override
     public void run() {
-        arrivalTime = System.currentTimeMillis();
-        System.out.println(getName() + " arrived with fuel=" + fuelLevel);
-
-        Thread fuelMonitor = new Thread(this::monitorFuel);
-        fuelMonitor.start();
+        LandingClearance clearance;
+        while (true) {
+            arrivalTime = clock.now();
+            if (firstArrivalTime < 0) firstArrivalTime = arrivalTime;
+            TraceWriter.record(TraceEvent.ARRIVED, id, -1);
+            AirportLogger.log(name, this::arrivalMessage);
 
-        // Request permission to land (ATC checks gate availability)
-        atc.requestToLand(this, gateManager);
-        fuelMonitor.interrupt();
+            // Request permission to land (ATC checks gate availability and holding capacity)
+            CompletableFuture<LandingClearance> cleared = new CompletableFuture<>();
+            AirTrafficController.Admission admission = atc.requestToLand(this, gateManager, cleared::complete);
+            if (admission == AirTrafficController.Admission.DIVERTED) {
+                divert();
+                return;
+            }
+            if (admission == AirTrafficController.Admission.ADMITTED) {
+                admitted();
+                clearance = cleared.join();
+                break;
+            }
+            simulateExact("Held at origin", atc.getOriginDelayMillis());
+        }
+        leftHolding = true; // the fuel monitor drops us on its next pass
+        if (clearance == LandingClearance.DIVERTED) {
+            divert();
+            return;
+        }
+        Runway runway = clearance.runway();
 
-        long waitTime = System.currentTimeMillis() - arrivalTime;
-        stats.recordWaitingTime(waitTime);
+        long cleared = clock.now();
+        stats.recordWaitingTime(cleared - arrivalTime);
+        StageEvent.emit(name, Stage.LANDING_QUEUE, arrivalTime, cleared);
 
         // Land
-        simulate("Landing", 1000);
+        holdForSeparation(runway);
+        simulate("Landing on " + runway.getName(), 1000);
+        long landed = clock.now();
+        StageEvent.emit(name, Stage.LANDING, cleared, landed);
+        TraceWriter.record(TraceEvent.LANDED, id, runway.getId());
 
-        // Request gate (guaranteed free now)
-        Gate gate = gateManager.requestGate(this);
+        // Dock at the gate reserved with the clearance: never waits while holding the runway
+        Gate gate = gateManager.dock(clearance.gate());
+        long docked = clock.now();
+        TraceWriter.record(TraceEvent.DOCKED, id, gate.getGateId());
+        StageEvent.emit(name, Stage.GATE_ACQUIRE, landed, docked);
 
         // Free runway for next plane
-        atc.releaseRunway(this);
+        atc.releaseRunway(this, runway);
 
-        AirportLogger.log(getName(), "Docked at Gate " + gate.getGateId());
+        AirportLogger.log(name, () -> "Docked at Gate " + gate.getGateId());
         simulate("Taxi to Gate " + gate.getGateId(), 100);
 
-        handlePassengers();
-
-        refuelTruck.refuel(this);
+        // Crews and the refuel truck work on their own; this thread just waits for the result
+        groundOperations.turnaround(this, gate).join();
+        TraceWriter.record(TraceEvent.TURNAROUND_DONE, id, gate.getGateId());
         simulate("Preparing for takeoff", 1000);
 
         gateManager.releaseGate(gate);
+        atc.gateReleased();
 
-        atc.requestToTakeoff(this);
-        simulate("Takeoff", 1000);
-        atc.releaseRunway(this);
+        long readyAt = clock.now();
+        Runway departure = atc.requestToTakeoff(this);
+        long granted = clock.now();
+        StageEvent.emit(name, Stage.TAKEOFF_QUEUE, readyAt, granted);
+        holdForSeparation(departure);
+        simulate("Takeoff from " + departure.getName(), 1000);
+        StageEvent.emit(name, Stage.TAKEOFF, granted, clock.now());
+        TraceWriter.record(TraceEvent.DEPARTED, id, departure.getId());
+        atc.releaseRunway(this, departure);
 
         stats.recordPlane(this);
         stats.recordPassengers(passengerCount);
     }
 
 
+    private void admitted() {
+        fuelMonitor.register(this);
+        if (arrivalTime > firstArrivalTime) stats.recordOriginDelay(arrivalTime - firstArrivalTime);
+    }
+
+    private void divert() {
+        leftHolding = true;
+        AirportLogger.log(name, "Holding full, diverting to alternate.");
+    }
+
+    private String arrivalMessage() {
+        return "arrived" + (aircraftType == null ? "" : " (" + aircraftType + ")") + " with fuel=" + fuelLevel;
+    }
+
     // ======================================
     // FUEL MONITOR
     // ======================================
-    private void monitorFuel() {
-        try {
-            while (!Thread.currentThread().isInterrupted() && !emergency) {
-                Thread.sleep(1000);
-                fuelLevel -= 8 + rand.nextInt(15);
-
-                if (fuelLevel <= 20 && !emergency) {
-                    emergency = true;
-                    System.out.println("⚠️ " + getName() + " LOW FUEL! Declaring emergency.");
-                    atc.notifyEmergency(this, gateManager); // immediate alert to ATC
-                } else {
-                    System.out.println(getName() + " fuel remaining: " + fuelLevel);
-                }
-            }
-        } catch (InterruptedException ignored) {}
+    // Called by the shared FuelMonitor once per burn period; false = stop monitoring
+    boolean onFuelTick() {
+        if (leftHolding || emergency) return false;
+        burnFuel();
+        return !leftHolding && !emergency;
+    }
+
+    private void burnFuel() {
+        fuelLevel -= 8 + rand.nextInt(15);
+
+        if (fuelLevel <= 20 && !emergency) {
+            emergency = true;
+            AirportLogger.log(name, "⚠️ LOW FUEL! Declaring emergency.");
+            fuelMonitor.alert(() -> atc.notifyEmergency(this, gateManager)); // immediate alert to ATC
+        } else {
+            AirportLogger.log(name, () -> "fuel remaining: " + fuelLevel);
+        }
     }
 
     // ======================================
-    // CONCURRENT GATE ACTIVITIES (MODIFIED)
+    // TIMED ACTIVITIES
     // ======================================
     private void simulate(String action, int time) {
-        AirportLogger.log(getName(), action);
-        try { Thread.sleep(time + rand.nextInt(500)); } catch (InterruptedException ignored) {}
-    }
-
-    private void handlePassengers() {
-        // CountDownLatch to track when all 3 operations are done
-        CountDownLatch latch = new CountDownLatch(3);
-
-        // Start all three operations as independent threads
-        Thread disembark = new Thread(() -> {
-            try {
-                // Add small random delays to create interleaving
-                Thread.sleep(rand.nextInt(200));
-                simulate("Passengers disembarking", 2000);
-            } catch (InterruptedException ignored) {
-            } finally {
-                latch.countDown();
-            }
-        }, getName() + "-Disembark");
-
-        Thread clean = new Thread(() -> {
-            try {
-                Thread.sleep(rand.nextInt(200));
-                simulate("Cleaning aircraft", 2500);
-            } catch (InterruptedException ignored) {
-            } finally {
-                latch.countDown();
-            }
-        }, getName() + "-Clean");
-
-        Thread embark = new Thread(() -> {
-            try {
-                Thread.sleep(rand.nextInt(200));
-                simulate("Passengers embarking", 2000);
-            } catch (InterruptedException ignored) {
-            } finally {
-                latch.countDown();
+        AirportLogger.log(name, action);
+        try { clock.sleep(duration(time)); } catch (InterruptedException ignored) {}
+    }
+
+    private void simulateExact(String action, long time) {
+        AirportLogger.log(name, action);
+        try { clock.sleep(time); } catch (InterruptedException ignored) {}
+    }
+
+    private int duration(int time) { return time + rand.nextInt(500); }
+
+    // How long a ground task with this nominal duration takes for this plane
+    int taskDuration(int time) { return duration(time); }
+
+    // Wait out the runway's minimum separation from the previous movement
+    private void holdForSeparation(Runway runway) {
+        long wait = runway.separationWait(clock.now());
+        if (wait > 0) {
+            try { clock.sleep(wait); } catch (InterruptedException ignored) {}
+        }
+    }
+
+    // ======================================
+    // DISCRETE-EVENT LIFECYCLE
+    // Same steps and durations as run(), but each wait is an event on the
+    // virtual clock instead of a sleeping thread.
+    // ======================================
+    public void arrive(EventScheduler sim) {
+        this.sim = sim;
+        arrivalTime = sim.now();
+        if (firstArrivalTime < 0) firstArrivalTime = arrivalTime;
+        TraceWriter.record(TraceEvent.ARRIVED, id, -1);
+        AirportLogger.log(name, this::arrivalMessage);
+
+        switch (atc.requestToLand(this, gateManager, this::onLandingCleared)) {
+            case ADMITTED -> admitted();
+            case DIVERTED -> divert();
+            case HELD_AT_ORIGIN -> {
+                AirportLogger.log(name, "Held at origin");
+                sim.schedule(atc.getOriginDelayMillis(), () -> arrive(sim));
             }
-        }, getName() + "-Embark");
+        }
+    }
+
+    private void onLandingCleared(LandingClearance clearance) {
+        if (clearance == LandingClearance.DIVERTED) {
+            divert();
+            return;
+        }
+        Runway runway = clearance.runway();
+        leftHolding = true;
+        long cleared = sim.now();
+        stats.recordWaitingTime(cleared - arrivalTime);
+        StageEvent.emit(name, Stage.LANDING_QUEUE, arrivalTime, cleared);
+        sim.schedule(runway.separationWait(cleared),
+                () -> after("Landing on " + runway.getName(), 1000, () -> onLanded(clearance, cleared)));
+    }
+
+    private void onLanded(LandingClearance clearance, long cleared) {
+        long landed = sim.now();
+        StageEvent.emit(name, Stage.LANDING, cleared, landed);
+        TraceWriter.record(TraceEvent.LANDED, id, clearance.runway().getId());
+        gate = gateManager.dock(clearance.gate());
+        TraceWriter.record(TraceEvent.DOCKED, id, gate.getGateId());
+        StageEvent.emit(name, Stage.GATE_ACQUIRE, landed, sim.now());
+        atc.releaseRunway(this, clearance.runway());
+
+        AirportLogger.log(name, () -> "Docked at Gate " + gate.getGateId());
+        after("Taxi to Gate " + gate.getGateId(), 100, () -> groundOperations.turnaround(this, gate)
+                .thenRun(() -> {
+                    TraceWriter.record(TraceEvent.TURNAROUND_DONE, id, gate.getGateId());
+                    after("Preparing for takeoff", 1000, this::onReadyForTakeoff);
+                }));
+    }
 
-        // Start all threads immediately (this allows interleaving with other planes)
-        disembark.start();
-        clean.start();
-        embark.start();
+    private void onReadyForTakeoff() {
+        gateManager.releaseGate(gate);
+        atc.gateReleased();
+        long readyAt = sim.now();
+        atc.requestToTakeoff(this, runway -> {
+            long granted = sim.now();
+            StageEvent.emit(name, Stage.TAKEOFF_QUEUE, readyAt, granted);
+            sim.schedule(runway.separationWait(granted),
+                    () -> after("Takeoff from " + runway.getName(), 1000, () -> onDeparted(runway, granted)));
+        });
+    }
 
-        // Wait for THIS plane's operations to complete before moving to refueling
-        try {
-            latch.await();
-        } catch (InterruptedException ignored) {}
+    private void onDeparted(Runway runway, long granted) {
+        StageEvent.emit(name, Stage.TAKEOFF, granted, sim.now());
+        TraceWriter.record(TraceEvent.DEPARTED, id, runway.getId());
+        atc.releaseRunway(this, runway);
+        stats.recordPlane(this);
+        stats.recordPassengers(passengerCount);
+    }
 
-        AirportLogger.log(getName(), "All operations completed and waiting for refuel.");
+    private void after(String action, int time, Runnable next) {
+        AirportLogger.log(name, action);
+        sim.schedule(duration(time), next);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package airport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Dispatches a fleet of refuel trucks. A job takes the drive over plus pumping time
+// proportional to the fuel the plane actually needs. When a truck is free it goes to
+// whichever of the LOOKAHEAD longest-waiting planes has the shortest job for its nearest
+// free truck, less a share of the time that plane has already waited, so near,
+// nearly-full planes go first without anyone being passed over for long.
+public class RefuelDispatcher {
+    public static final String TRUCK_WAIT = "Refuel Truck Wait";
+
+    static final int DRIVE_MS_PER_GATE = 50;
+    static final int SETUP_MS = 300;
+    static final int PUMP_MS_PER_UNIT = 25; // a half-empty plane takes ~1.5 s, as the single truck did
+    static final int LOOKAHEAD = 8;
+    static final int AGEING = 4; // every 4 ms a plane has waited takes 1 ms off its job
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<RefuelTruck> trucks = new ArrayList<>();
+    private final List<Request> waiting = new ArrayList<>();
+    private final StatisticsManager stats;
+    private final SimulationClock clock;
+    private final long startTime;
+
+    // A truck assigned to a plane, when, and how long the job will take
+    public record Assignment(RefuelTruck truck, long assignedAt, long durationMillis) {}
+
+    private record Request(Plane plane, int gatePosition, long requestedAt, Consumer<Assignment> onAssigned) {}
+
+    public RefuelDispatcher(int truckCount, int gateCount, StatisticsManager stats, SimulationClock clock) {
+        if (truckCount < 1) throw new IllegalArgumentException("Need at least one refuel truck");
+        // Park the trucks evenly along the gates
+        for (int i = 0; i < truckCount; i++) {
+            trucks.add(new RefuelTruck(i + 1, (int) ((i + 0.5) * gateCount / truckCount)));
+        }
+        this.stats = stats;
+        this.clock = clock;
+        this.startTime = clock.now();
+    }
+
+    // onDone runs once this plane has been refuelled
+    public void refuel(Plane plane, Gate gate, Scheduler scheduler, Runnable onDone) {
+        request(plane, gate, job -> scheduler.schedule(job.durationMillis(), () -> {
+            complete(plane, job);
+            onDone.run();
+        }));
+    }
+
+    // onAssigned runs once a truck is on its way; the caller must complete() the job
+    public void request(Plane plane, Gate gate, Consumer<Assignment> onAssigned) {
+        AirportLogger.log("RefuelTruck", () -> plane.getName() + " waiting for refuel truck...");
+        lock.lock();
+        try {
+            waiting.add(new Request(plane, gate.getGateId() - 1, clock.now(), onAssigned));
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void complete(Plane plane, Assignment job) {
+        plane.refuelled();
+        StageEvent.emit(plane.getName(), StageEvent.Stage.REFUEL, job.assignedAt(), clock.now());
+        AirportLogger.log("RefuelTruck", () -> plane.getName() + " refueling complete (" + job.truck().getName() + ").");
+        lock.lock();
+        try {
+            job.truck().free();
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Planes waiting for a truck, oldest first, as choose() sees them
+    interface Waiting {
+        int size();
+        int gatePosition(int i);
+        int fuelLevel(int i);
+        long requestedAt(int i);
+    }
+
+    private final Waiting pending = new Waiting() {
+        @Override public int size() { return waiting.size(); }
+        @Override public int gatePosition(int i) { return waiting.get(i).gatePosition(); }
+        @Override public int fuelLevel(int i) { return waiting.get(i).plane().getFuelLevel(); }
+        @Override public long requestedAt(int i) { return waiting.get(i).requestedAt(); }
+    };
+
+    private void dispatch() {
+        long now = clock.now();
+        long choice;
+        while ((choice = choose(pending, trucks, now)) >= 0) {
+            Request next = waiting.remove((int) (choice >>> 32));
+            RefuelTruck truck = trucks.get((int) choice);
+            int fuel = next.plane().getFuelLevel();
+            int fuelNeeded = Math.max(0, 100 - fuel);
+            long duration = jobMillis(truck.getPosition(), next.gatePosition(), fuel);
+            truck.assign(next.gatePosition(), duration);
+            stats.record(TRUCK_WAIT, now - next.requestedAt());
+
+            Plane plane = next.plane();
+            StageEvent.emit(plane.getName(), StageEvent.Stage.REFUEL_QUEUE, next.requestedAt(), now);
+            AirportLogger.log("RefuelTruck", () -> plane.getName() + " now refueling (" + truck.getName()
+                    + ", " + fuelNeeded + " units).");
+            next.onAssigned().accept(new Assignment(truck, now, duration));
+        }
+    }
+
+    // The next job, as request index << 32 | truck index, or -1 if no truck is free.
+    // Shared with the fleet engine so both dispatch the same way.
+    static long choose(Waiting waiting, List<RefuelTruck> trucks, long now) {
+        int n = Math.min(waiting.size(), LOOKAHEAD);
+        long best = -1;
+        long bestScore = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            int position = waiting.gatePosition(i);
+            int t = nearestFreeTruck(trucks, position);
+            if (t < 0) return -1;
+            long score = jobMillis(trucks.get(t).getPosition(), position, waiting.fuelLevel(i))
+                    - (now - waiting.requestedAt(i)) / AGEING;
+            if (score < bestScore) { // ties go to the plane that has waited longer
+                bestScore = score;
+                best = (long) i << 32 | t;
+            }
+        }
+        return best;
+    }
+
+    // Drive over, set up, and pump what the plane needs to fill up
+    static long jobMillis(int truckPosition, int gatePosition, int fuelLevel) {
+        long drive = (long) Math.abs(truckPosition - gatePosition) * DRIVE_MS_PER_GATE;
+        return drive + SETUP_MS + (long) Math.max(0, 100 - fuelLevel) * PUMP_MS_PER_UNIT;
+    }
+
+    static int nearestFreeTruck(List<RefuelTruck> trucks, int gatePosition) {
+        int best = -1;
+        for (int i = 0; i < trucks.size(); i++) {
+            RefuelTruck t = trucks.get(i);
+            if (t.isBusy()) continue;
+            if (best < 0 || Math.abs(t.getPosition() - gatePosition)
+                    < Math.abs(trucks.get(best).getPosition() - gatePosition)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    public int getQueueLength() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void printFleetReport() {
+        lock.lock();
+        try {
+            printFleetReport(trucks, clock.now() - startTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Shared with FleetSimulation, so both engines report alike
+    static void printFleetReport(List<RefuelTruck> trucks, long elapsedMillis) {
+        long elapsed = Math.max(1, elapsedMillis);
+        System.out.println("\n--- REFUEL FLEET ---");
+        for (RefuelTruck t : trucks) {
+            System.out.printf("%s: %d jobs, %.1f%% utilization%n",
+                    t.getName(), t.getJobs(), 100.0 * t.getBusyMillis() / elapsed);
+        }
+    }
+}
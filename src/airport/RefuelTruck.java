@@ -1,20 +1,50 @@
 package airport;
-import java.util.concurrent.Semaphore;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
+// One refuel truck. All state is guarded by the RefuelDispatcher lock.
 public class RefuelTruck {
-    private final Semaphore refuelLock = new Semaphore(1, true);
-
-    public void refuel(Plane plane) {
-        try {
-            AirportLogger.log("RefuelTruck", plane.getName() + " waiting for refuel truck...");
-            refuelLock.acquire();
-            AirportLogger.log("RefuelTruck", plane.getName() + " now refueling.");
-            Thread.sleep(1500);
-            AirportLogger.log("RefuelTruck", plane.getName() + " refueling complete.");
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } finally {
-            refuelLock.release();
-        }
+    private final int id;
+    private int position;       // gate index the truck is parked at
+    private boolean busy = false;
+    private long busyMillis = 0;
+    private long jobs = 0;
+
+    public RefuelTruck(int id, int position) {
+        this.id = id;
+        this.position = position;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return "Truck " + id; }
+    public int getPosition() { return position; }
+    public long getBusyMillis() { return busyMillis; }
+    public long getJobs() { return jobs; }
+
+    boolean isBusy() { return busy; }
+
+    void assign(int gatePosition, long durationMillis) {
+        busy = true;
+        position = gatePosition;
+        busyMillis += durationMillis;
+        jobs++;
+    }
+
+    void free() { busy = false; }
+
+    // For a FleetSimulation checkpoint
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(position);
+        out.writeBoolean(busy);
+        out.writeLong(busyMillis);
+        out.writeLong(jobs);
+    }
+
+    void readState(DataInputStream in) throws IOException {
+        position = in.readInt();
+        busy = in.readBoolean();
+        busyMillis = in.readLong();
+        jobs = in.readLong();
     }
 }
@@ -0,0 +1,228 @@
+package airport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+
+// Monte Carlo capacity sweeps: runs many independent, seeded discrete-event replicas of
+// each scenario in parallel on a fork/join pool and reports every metric as a mean with
+// a 95% confidence interval. Replica k of every scenario gets the same seed, so all
+// scenarios see the same traffic and their differences are not sampling noise.
+// Usage: java -cp ... airport.ReplicaRunner [--replicas=N] [--gates=2,3,4,6] [--trucks=1,2]
+//            [--crews=2,3,6] [--runways=mixed/arrivals,departures] [--separation=MS] [--planes=N]
+//            [--interarrival=MS] [--seed=N] [--parallelism=N]
+// Without --crews every scenario has one crew of each kind per gate, as Main does.
+public class ReplicaRunner {
+    // 95% two-sided Student t quantiles for 1..30 degrees of freedom
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    // crews = crews of each ground task kind
+    public record Scenario(int gates, int trucks, int crews, List<Runway.Mode> runways, long separationMillis,
+                           int planes, int interArrivalMillis) {
+        public String runwayLabel() {
+            StringBuilder sb = new StringBuilder();
+            for (Runway.Mode m : runways) sb.append(sb.isEmpty() ? "" : ",").append(m.name().toLowerCase());
+            return sb.toString();
+        }
+    }
+
+    // What one replica measured
+    public record ReplicaResult(long seed, long planesServed, double meanWaitMillis, long p99WaitMillis,
+                                double meanTruckWaitMillis, double meanTurnaroundMillis, double movementsPerHour) {}
+
+    public record Interval(double mean, double halfWidth) {}
+
+    public static class ScenarioReport {
+        private final Scenario scenario;
+        private final ReplicaResult[] replicas;
+        private final LatencyHistogram pooledWaiting = new LatencyHistogram(); // every plane of every replica
+
+        ScenarioReport(Scenario scenario, int replicas) {
+            this.scenario = scenario;
+            this.replicas = new ReplicaResult[replicas];
+        }
+
+        public Scenario getScenario() { return scenario; }
+        public List<ReplicaResult> getReplicas() { return List.of(replicas); }
+        public LatencyHistogram.Snapshot getPooledWaiting() { return pooledWaiting.snapshot(); }
+
+        // Mean across replicas with a 95% confidence interval
+        public Interval interval(ToDoubleFunction<ReplicaResult> metric) {
+            int n = replicas.length;
+            double sum = 0;
+            for (ReplicaResult r : replicas) sum += metric.applyAsDouble(r);
+            double mean = sum / n;
+            if (n < 2) return new Interval(mean, Double.NaN);
+            double squares = 0;
+            for (ReplicaResult r : replicas) {
+                double d = metric.applyAsDouble(r) - mean;
+                squares += d * d;
+            }
+            double stdDev = Math.sqrt(squares / (n - 1));
+            return new Interval(mean, tQuantile(n - 1) * stdDev / Math.sqrt(n));
+        }
+    }
+
+    public static List<ScenarioReport> run(List<Scenario> scenarios, int replicas, long baseSeed, int parallelism) {
+        List<ScenarioReport> reports = new ArrayList<>();
+        for (Scenario s : scenarios) reports.add(new ScenarioReport(s, replicas));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Replicas(reports, replicas, baseSeed, 0, scenarios.size() * replicas));
+        } finally {
+            pool.shutdown();
+        }
+        return reports;
+    }
+
+    // Splits the flat (scenario, replica) range in halves down to single replicas.
+    // Tasks never leave this JVM, so RecursiveAction being Serializable does not matter.
+    @SuppressWarnings("serial")
+    private static class Replicas extends RecursiveAction {
+        private final List<ScenarioReport> reports;
+        private final int replicas;
+        private final long baseSeed;
+        private final int from;
+        private final int to;
+
+        Replicas(List<ScenarioReport> reports, int replicas, long baseSeed, int from, int to) {
+            this.reports = reports;
+            this.replicas = replicas;
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                ScenarioReport report = reports.get(from / replicas);
+                int replica = from % replicas;
+                report.replicas[replica] = runReplica(report, Airport.mix(baseSeed + replica));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Replicas(reports, replicas, baseSeed, from, mid),
+                    new Replicas(reports, replicas, baseSeed, mid, to));
+        }
+    }
+
+    private static ReplicaResult runReplica(ScenarioReport report, long seed) {
+        Scenario s = report.scenario;
+        EventScheduler sim = new EventScheduler();
+        StatisticsManager stats = new StatisticsManager(s.planes());
+        List<Runway> runways = new ArrayList<>();
+        for (Runway.Mode mode : s.runways()) runways.add(new Runway(runways.size() + 1, mode, s.separationMillis()));
+        AirTrafficController atc = new AirTrafficController(stats, sim, runways);
+        RefuelDispatcher refuelDispatcher = new RefuelDispatcher(s.trucks(), s.gates(), stats, sim);
+        GroundOperations groundOperations = new GroundOperations(new int[] {s.crews(), s.crews(), s.crews()},
+                refuelDispatcher, stats, sim, sim);
+        Airport airport = new Airport(sim, stats, atc, new GateManager(s.gates()), refuelDispatcher, groundOperations,
+                FuelMonitor.discreteEvent(sim), null, seed);
+
+        new ArrivalFeed(sim, ArrivalFeed.demo(s.planes(), s.interArrivalMillis(), airport.newRandom(0)), airport).start();
+        sim.run();
+
+        LatencyHistogram.Snapshot waiting = stats.snapshot(StatisticsManager.WAITING_TIME);
+        report.pooledWaiting.add(waiting);
+        long movements = 0;
+        for (Runway r : runways) movements += r.getMovements();
+        double hours = Math.max(1, sim.now()) / 3_600_000.0;
+        return new ReplicaResult(seed, stats.getPlanesServed(), waiting.getMean(), waiting.percentile(0.99),
+                stats.snapshot(RefuelDispatcher.TRUCK_WAIT).getMean(),
+                stats.snapshot(GroundOperations.TURNAROUND).getMean(), movements / hours);
+    }
+
+    static double tQuantile(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_95.length) return T_95[degreesOfFreedom - 1];
+        if (degreesOfFreedom <= 40) return 2.021;
+        if (degreesOfFreedom <= 60) return 2.000;
+        if (degreesOfFreedom <= 120) return 1.980;
+        return 1.960;
+    }
+
+    public static void main(String[] args) {
+        int replicas = 100;
+        int[] gates = {2, 3, 4, 6};
+        int[] trucks = {1};
+        int[] crews = null; // one crew of each kind per gate, as in Main
+        String[] runwaySets = {"mixed"};
+        long separation = 0;
+        int planes = 500;
+        int interArrival = 3500;
+        long seed = 42;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+
+        for (String arg : args) {
+            if (arg.startsWith("--replicas=")) replicas = Integer.parseInt(arg.substring(11));
+            else if (arg.startsWith("--gates=")) gates = parseInts(arg.substring(8));
+            else if (arg.startsWith("--trucks=")) trucks = parseInts(arg.substring(9));
+            else if (arg.startsWith("--crews=")) crews = parseInts(arg.substring(8));
+            else if (arg.startsWith("--runways=")) runwaySets = arg.substring(10).split("/");
+            else if (arg.startsWith("--separation=")) separation = Long.parseLong(arg.substring(13));
+            else if (arg.startsWith("--planes=")) planes = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--interarrival=")) interArrival = Integer.parseInt(arg.substring(15));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--parallelism=")) parallelism = Integer.parseInt(arg.substring(14));
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+        AirportLogger.setEnabled(false);
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String set : runwaySets) {
+            List<Runway.Mode> modes = Arrays.stream(set.split(",")).map(m -> Runway.Mode.valueOf(m.toUpperCase())).toList();
+            for (int t : trucks) {
+                if (crews == null) {
+                    for (int g : gates) {
+                        scenarios.add(new Scenario(g, t, GroundOperations.defaultCrews(g)[0], modes, separation, planes,
+                                interArrival));
+                    }
+                    continue;
+                }
+                for (int c : crews) {
+                    for (int g : gates) scenarios.add(new Scenario(g, t, c, modes, separation, planes, interArrival));
+                }
+            }
+        }
+
+        System.out.println("=== Replica Sweep: " + scenarios.size() + " scenarios x " + replicas + " replicas, "
+                + planes + " planes each, " + parallelism + " workers ===");
+        long start = System.nanoTime();
+        List<ScenarioReport> reports = run(scenarios, replicas, seed, parallelism);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%-5s %-6s %-5s %-20s %-16s %-16s %-16s %-16s %-16s %s%n", "Gates", "Trucks", "Crews",
+                "Runways", "Wait mean (s)", "Wait p99 (s)", "Truck wait (s)", "Turnaround (s)", "Movements/h",
+                "Pooled p99 (s)");
+        for (ScenarioReport r : reports) {
+            Scenario s = r.getScenario();
+            System.out.printf("%-5d %-6d %-5d %-20s %-16s %-16s %-16s %-16s %-16s %.2f%n", s.gates(), s.trucks(),
+                    s.crews(), s.runwayLabel(),
+                    seconds(r.interval(ReplicaResult::meanWaitMillis)),
+                    seconds(r.interval(ReplicaResult::p99WaitMillis)),
+                    seconds(r.interval(ReplicaResult::meanTruckWaitMillis)),
+                    seconds(r.interval(ReplicaResult::meanTurnaroundMillis)),
+                    format(r.interval(ReplicaResult::movementsPerHour)),
+                    r.getPooledWaiting().percentile(0.99) / 1000.0);
+        }
+        System.out.println("Intervals are 95% confidence intervals over replicas. Finished in " + elapsedMs + " ms.");
+    }
+
+    private static int[] parseInts(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static String seconds(Interval i) {
+        return format(new Interval(i.mean() / 1000, i.halfWidth() / 1000));
+    }
+
+    private static String format(Interval i) {
+        return String.format("%.2f ± %.2f", i.mean(), i.halfWidth());
+    }
+}
@@ -0,0 +1,85 @@
+package airport;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// One runway. All state is guarded by the AirTrafficController lock.
+public class Runway {
+    public enum Mode {
+        ARRIVALS, DEPARTURES, MIXED;
+
+        boolean accepts(boolean arrival) {
+            return this == MIXED || (arrival ? this == ARRIVALS : this == DEPARTURES);
+        }
+    }
+
+    private final int id;
+    private final Mode mode;
+    private final long separationMillis; // minimum gap between the end of one movement and the start of the next
+
+    private boolean inUse = false;
+    private long readyAt = 0;       // earliest start of the next movement
+    private long releasedAt = -1;   // release time while planes were waiting, -1 if none
+    private long arrivals = 0;
+    private long departures = 0;
+
+    public Runway(int id, Mode mode, long separationMillis) {
+        this.id = id;
+        this.mode = mode;
+        this.separationMillis = separationMillis;
+    }
+
+    public int getId() { return id; }
+    public Mode getMode() { return mode; }
+    public long getSeparationMillis() { return separationMillis; }
+    public String getName() { return "Runway " + id; }
+
+    // How long a plane granted this runway at 'now' must hold for separation
+    public long separationWait(long now) { return Math.max(0, readyAt - now); }
+
+    boolean isFree() { return !inUse; }
+    boolean accepts(boolean arrival) { return mode.accepts(arrival); }
+    long getReadyAt() { return readyAt; }
+
+    void occupy(boolean arrival) {
+        inUse = true;
+        if (arrival) arrivals++;
+        else departures++;
+    }
+
+    void release(long now) {
+        inUse = false;
+        readyAt = now + separationMillis;
+    }
+
+    void markReleasedWithWaiters(long now) { releasedAt = now; }
+
+    // Time since the last release with planes waiting, or -1 if there was none; clears it
+    long takeHandoffGap(long now) {
+        if (releasedAt < 0) return -1;
+        long gap = now - releasedAt;
+        releasedAt = -1;
+        return gap;
+    }
+
+    // Movement state and counters, for a FleetSimulation checkpoint
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeBoolean(inUse);
+        out.writeLong(readyAt);
+        out.writeLong(releasedAt);
+        out.writeLong(arrivals);
+        out.writeLong(departures);
+    }
+
+    void readState(DataInputStream in) throws IOException {
+        inUse = in.readBoolean();
+        readyAt = in.readLong();
+        releasedAt = in.readLong();
+        arrivals = in.readLong();
+        departures = in.readLong();
+    }
+
+    public long getArrivals() { return arrivals; }
+    public long getDepartures() { return departures; }
+    public long getMovements() { return arrivals + departures; }
+}
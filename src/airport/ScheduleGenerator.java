@@ -0,0 +1,61 @@
+package airport;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Writes synthetic arrival schedules for load testing. Arrivals are a Poisson process
+// with the given mean gap; about one flight in six arrives low on fuel, as in the demo.
+// Usage: java -cp ... airport.ScheduleGenerator OUT.csv [flights] [meanInterArrivalMs] [seed]
+public class ScheduleGenerator {
+    private static final String[] TYPES = {"E175", "A320", "B738", "B789"};
+    private static final int[][] SEATS = {{40, 76}, {120, 180}, {130, 189}, {200, 290}};
+
+    public static void main(String[] args) {
+        if (args.length < 1) throw new IllegalArgumentException("Usage: ScheduleGenerator OUT.csv [flights] [meanInterArrivalMs] [seed]");
+        Path out = Path.of(args[0]);
+        long flights = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        int interArrival = args.length > 2 ? Integer.parseInt(args[2]) : 3500;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        long start = System.nanoTime();
+        write(out, flights, interArrival, seed);
+        System.out.println("Wrote " + flights + " flights to " + out + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    public static void write(Path out, long flights, int meanInterArrivalMs, long seed) {
+        Random rand = new Random(seed);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            put(channel, buffer, ScheduledFlight.HEADER + "\n");
+            long arrival = 0;
+            for (long i = 1; i <= flights; i++) {
+                arrival += (long) (-Math.log(1 - rand.nextDouble()) * meanInterArrivalMs);
+                int type = rand.nextInt(TYPES.length);
+                int fuel = rand.nextInt(6) == 0 ? 20 + rand.nextInt(15) : 70 + rand.nextInt(31);
+                int passengers = SEATS[type][0] + rand.nextInt(SEATS[type][1] - SEATS[type][0] + 1);
+                put(channel, buffer, "F" + i + "," + arrival + "," + fuel + "," + passengers + "," + TYPES[type] + "\n");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void put(FileChannel channel, ByteBuffer buffer, String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        if (buffer.remaining() < bytes.length) {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+        buffer.put(bytes);
+    }
+}
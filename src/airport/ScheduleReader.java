@@ -0,0 +1,172 @@
+package airport;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Streams an arrival schedule (CSV, see ScheduledFlight.HEADER) through one reusable
+// direct buffer, so a schedule of any length is read in constant memory. Only the
+// flight being handed out is materialized; numbers are parsed straight from the bytes.
+// Arrival times must not decrease, since flights are fed to the ATC in file order.
+public class ScheduleReader implements Iterator<ScheduledFlight>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Path path;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean eof = false;
+    private long lineNumber = 0;
+    private long lastArrival = 0;
+    private ScheduledFlight next;
+
+    public ScheduleReader(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip(); // start empty, in read mode
+        try {
+            next = readFlight();
+        } catch (RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() { return next != null; }
+
+    @Override
+    public ScheduledFlight next() {
+        if (next == null) throw new NoSuchElementException();
+        ScheduledFlight flight = next;
+        next = readFlight();
+        return flight;
+    }
+
+    public long getLineNumber() { return lineNumber; }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ScheduledFlight readFlight() {
+        while (true) {
+            int end = findLineEnd();
+            if (end < 0) return null;
+            int start = buffer.position();
+            buffer.position(Math.min(end + 1, buffer.limit()));
+            lineNumber++;
+
+            if (end > start && buffer.get(end - 1) == '\r') end--;
+            if (end == start || buffer.get(start) == '#') continue;
+            if (lineNumber == 1 && isHeader(start, end)) continue;
+            return parse(start, end);
+        }
+    }
+
+    // Index of the '\n' ending the current line (or the end of the file), refilling as needed; -1 at EOF
+    private int findLineEnd() {
+        int scanFrom = buffer.position();
+        while (true) {
+            for (int i = scanFrom; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') return i;
+            }
+            if (eof) return buffer.hasRemaining() ? buffer.limit() : -1;
+            scanFrom = buffer.remaining();
+            fill();
+        }
+    }
+
+    private void fill() {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            // A single line longer than the buffer: grow it
+            ByteBuffer bigger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        try {
+            if (channel.read(buffer) < 0) eof = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+    }
+
+    private ScheduledFlight parse(int start, int end) {
+        int[] bounds = new int[6];
+        bounds[0] = start - 1;
+        int field = 1;
+        for (int i = start; i < end && field < 5; i++) {
+            if (buffer.get(i) == ',') bounds[field++] = i;
+        }
+        if (field != 5) throw error("expected 5 fields");
+        bounds[5] = end;
+
+        String flightId = text(bounds[0] + 1, bounds[1]);
+        long arrival = number(bounds[1] + 1, bounds[2]);
+        long fuel = number(bounds[2] + 1, bounds[3]);
+        long passengers = number(bounds[3] + 1, bounds[4]);
+        String type = text(bounds[4] + 1, bounds[5]);
+
+        if (arrival < lastArrival) throw error("arrival " + arrival + " is before the previous flight's " + lastArrival);
+        if (fuel != -1 && (fuel < 0 || fuel > 100)) throw error("fuel must be 0-100, or -1");
+        if (passengers != -1 && (passengers < 0 || passengers > ScheduledFlight.MAX_PASSENGERS)) {
+            throw error("passengers must be 0-" + ScheduledFlight.MAX_PASSENGERS + ", or -1");
+        }
+        lastArrival = arrival;
+        return new ScheduledFlight(flightId, arrival, (int) fuel, (int) passengers, type);
+    }
+
+    // The header is the one line whose arrival field is not a number
+    private boolean isHeader(int start, int end) {
+        int i = start;
+        while (i < end && buffer.get(i) != ',') i++;
+        return i + 1 < end && !isDigit(buffer.get(i + 1)) && buffer.get(i + 1) != '-';
+    }
+
+    private long number(int from, int to) {
+        boolean negative = from < to && buffer.get(from) == '-';
+        if (negative) from++;
+        if (from >= to) throw error("empty number");
+        if (to - from > 18) throw error("number too long");
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) throw error("not a number");
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private String text(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isDigit(byte b) { return b >= '0' && b <= '9'; }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(path + ":" + lineNumber + ": " + message);
+    }
+}
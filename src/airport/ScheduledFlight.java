@@ -0,0 +1,9 @@
+package airport;
+
+// One row of an arrival schedule: flightId,arrivalMs,fuel,passengers,type. Arrival is in ms
+// from the start of the run. Fuel or passengers of -1 let the plane pick its own, as the
+// built-in demo traffic does.
+public record ScheduledFlight(String flightId, long arrivalMillis, int fuel, int passengers, String aircraftType) {
+    public static final String HEADER = "flightId,arrivalMs,fuel,passengers,type";
+    public static final int MAX_PASSENGERS = Short.MAX_VALUE; // the fleet engine keeps them in a short
+}
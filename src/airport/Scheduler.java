@@ -0,0 +1,22 @@
+package airport;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// Runs a task after a delay: on the virtual clock for discrete-event runs (EventScheduler),
+// or in real time on an executor for the threaded model. Lets callback-style components
+// such as GroundOperations work unchanged in both engines without holding a thread.
+public interface Scheduler {
+    void schedule(long delayMillis, Runnable task);
+
+    // Wall-clock delays; the task runs on the given executor once the delay is up
+    static Scheduler delayed(Executor executor) {
+        return delayed(executor, SimulationClock.WALL);
+    }
+
+    // Delays in the clock's simulated time, e.g. shortened by a ScaledClock
+    static Scheduler delayed(Executor executor, SimulationClock clock) {
+        return (delayMillis, task) -> CompletableFuture.delayedExecutor(
+                clock.realNanos(delayMillis), TimeUnit.NANOSECONDS, executor).execute(task);
+    }
+}
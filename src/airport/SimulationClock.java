@@ -0,0 +1,22 @@
+package airport;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Source of simulation time in milliseconds: wall clock for the threaded model, a
+// ScaledClock to run it faster than real time, or the virtual clock for the
+// discrete-event engine. Blocking code waits through the clock so it scales with it.
+public interface SimulationClock {
+    SimulationClock WALL = System::currentTimeMillis;
+
+    long now();
+
+    // Real time that passes while this clock advances by the given simulated milliseconds
+    default long realNanos(long simulatedMillis) {
+        return TimeUnit.MILLISECONDS.toNanos(simulatedMillis);
+    }
+
+    // Blocks the calling thread for the given simulated milliseconds
+    default void sleep(long simulatedMillis) throws InterruptedException {
+        if (simulatedMillis > 0) Thread.sleep(Duration.ofNanos(realNanos(simulatedMillis)));
+    }
+}
@@ -0,0 +1,64 @@
+package airport;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR event for one stage of a plane's turnaround. Times come from the simulation
+// clock, so discrete-event runs report virtual time. When no recording has the event
+// enabled, emit() is a single flag check and nothing is allocated.
+// Record with: java -XX:StartFlightRecording:filename=airport.jfr ... then
+// jfr print --events airport.Stage airport.jfr
+@Name("airport.Stage")
+@Label("Turnaround Stage")
+@Category("Airport")
+@StackTrace(false)
+public class StageEvent extends jdk.jfr.Event {
+    public enum Stage {
+        LANDING_QUEUE("Landing queue wait"),
+        LANDING("Landing"),
+        GATE_ACQUIRE("Gate acquire"),
+        DISEMBARK("Passengers disembarking"),
+        CLEANING("Cleaning aircraft"),
+        EMBARK("Passengers embarking"),
+        REFUEL_QUEUE("Refuel truck wait"),
+        REFUEL("Refuel"),
+        TAKEOFF_QUEUE("Takeoff runway wait"),
+        TAKEOFF("Takeoff");
+
+        private final String label;
+
+        Stage(String label) { this.label = label; }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final EventType TYPE = EventType.getEventType(StageEvent.class);
+
+    @Label("Plane")
+    String plane;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Start")
+    @Description("Simulation clock at the start of the stage, in milliseconds")
+    long startMillis;
+
+    @Label("Stage Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    long stageDuration;
+
+    public static void emit(String plane, Stage stage, long startMillis, long endMillis) {
+        if (!TYPE.isEnabled()) return;
+        StageEvent event = new StageEvent();
+        event.plane = plane;
+        event.stage = stage.getLabel();
+        event.startMillis = startMillis;
+        event.stageDuration = endMillis - startMillis;
+        event.commit();
+    }
+}
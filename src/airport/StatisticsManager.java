@@ -1,31 +1,172 @@
 package airport;
-import java.util.*;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
+// Lock-free statistics: every metric is a fixed-size histogram and every counter a
+// striped LongAdder, so planes never queue on a shared monitor and memory does not
+// grow with run length. Snapshots can be read while the simulation is running.
 public class StatisticsManager {
-    private final List<Long> waitingTimes = new ArrayList<>();
-    private int planesServed = 0;
-    private int totalPassengers = 0;
+    public static final String WAITING_TIME = "Waiting Time";
+    public static final String RUNWAY_HANDOFF = "Runway Handoff (release -> next grant)";
+    public static final String ORIGIN_DELAY = "Held At Origin (per delayed plane)";
 
-    public synchronized void recordWaitingTime(long t) {
-        waitingTimes.add(t);
+    private final Map<String, LatencyHistogram> metrics = new ConcurrentHashMap<>();
+    private final List<String> metricOrder = new CopyOnWriteArrayList<>(); // report in first-recorded order
+    private final LongAdder planesServed = new LongAdder();
+    private final LongAdder totalPassengers = new LongAdder();
+    private final LongAdder diverted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder rerouted = new LongAdder();
+    private final LongAdder reroutedLowFuel = new LongAdder();
+    private final LongAdder fuelExhausted = new LongAdder();
+    private volatile long expectedPlanes;
+
+    public StatisticsManager() { this(6); }
+
+    public StatisticsManager(int expectedPlanes) { this.expectedPlanes = expectedPlanes; }
+
+    // For streamed schedules, whose length is only known once they have been read
+    public void setExpectedPlanes(long expectedPlanes) { this.expectedPlanes = expectedPlanes; }
+
+    public void recordWaitingTime(long t) {
+        record(WAITING_TIME, t);
+    }
+
+    // Time the runway sat free after a release while planes were waiting
+    public void recordRunwayHandoff(long t) {
+        record(RUNWAY_HANDOFF, t);
+    }
+
+    // A plane sent to its alternate because holding was full; shed = removed from holding
+    public void recordDiversion(boolean shedFromHolding) {
+        diverted.increment();
+        if (shedFromHolding) shed.increment();
+    }
+
+    // A plane sent on to another airport of the network instead of landing here; unlike a
+    // diversion it is still in the simulation. lowFuel = it left holding at bingo fuel
+    public void recordReroute(boolean lowFuel) {
+        rerouted.increment();
+        if (lowFuel) reroutedLowFuel.increment();
+    }
+
+    // A rerouted plane that ran out of fuel before it reached the next airport
+    public void recordFuelExhausted() {
+        fuelExhausted.increment();
     }
 
-    public synchronized void recordPlane(Plane plane) {
-        planesServed++;
+    // Total time a plane was kept at its origin because holding was full
+    public void recordOriginDelay(long t) {
+        record(ORIGIN_DELAY, t);
     }
 
-    public synchronized void recordPassengers(int count) {
-        totalPassengers += count;
+    public void record(String metric, long millis) {
+        histogram(metric).record(millis);
     }
 
-    public void printSummary(GateManager gateManager) {
+    public void recordPlane(Plane plane) {
+        recordPlane();
+    }
+
+    public void recordPlane() {
+        planesServed.increment();
+    }
+
+    public void recordPassengers(int count) {
+        totalPassengers.add(count);
+    }
+
+    public LatencyHistogram histogram(String metric) {
+        LatencyHistogram h = metrics.get(metric);
+        if (h != null) return h;
+        return metrics.computeIfAbsent(metric, name -> {
+            metricOrder.add(name);
+            return new LatencyHistogram();
+        });
+    }
+
+    public LatencyHistogram.Snapshot snapshot(String metric) {
+        return histogram(metric).snapshot();
+    }
+
+    public List<String> getMetricNames() { return List.copyOf(metricOrder); }
+
+    public long getPlanesServed() { return planesServed.sum(); }
+
+    public long getTotalPassengers() { return totalPassengers.sum(); }
+
+    public long getDiverted() { return diverted.sum(); }
+
+    public long getShed() { return shed.sum(); }
+
+    public long getRerouted() { return rerouted.sum(); }
+
+    public long getReroutedLowFuel() { return reroutedLowFuel.sum(); }
+
+    public long getFuelExhausted() { return fuelExhausted.sum(); }
+
+    // Adds another manager's samples and counters to this one, e.g. to report the airports
+    // of a network as a whole. The other manager should no longer be recording.
+    public void add(StatisticsManager other) {
+        for (String metric : other.getMetricNames()) histogram(metric).add(other.snapshot(metric));
+        planesServed.add(other.getPlanesServed());
+        totalPassengers.add(other.getTotalPassengers());
+        diverted.add(other.getDiverted());
+        shed.add(other.getShed());
+        rerouted.add(other.getRerouted());
+        reroutedLowFuel.add(other.getReroutedLowFuel());
+        fuelExhausted.add(other.getFuelExhausted());
+    }
+
+    // Every metric and counter, for a FleetSimulation checkpoint
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(expectedPlanes);
+        out.writeLong(planesServed.sum());
+        out.writeLong(totalPassengers.sum());
+        out.writeLong(diverted.sum());
+        out.writeLong(shed.sum());
+        out.writeLong(rerouted.sum());
+        out.writeLong(reroutedLowFuel.sum());
+        out.writeLong(fuelExhausted.sum());
+        List<String> names = getMetricNames();
+        out.writeInt(names.size());
+        for (String metric : names) {
+            out.writeUTF(metric);
+            snapshot(metric).writeTo(out);
+        }
+    }
+
+    // Adds what writeTo() wrote; meant for a new, empty manager
+    void readFrom(DataInputStream in) throws IOException {
+        expectedPlanes = in.readLong();
+        planesServed.add(in.readLong());
+        totalPassengers.add(in.readLong());
+        diverted.add(in.readLong());
+        shed.add(in.readLong());
+        rerouted.add(in.readLong());
+        reroutedLowFuel.add(in.readLong());
+        fuelExhausted.add(in.readLong());
+        for (int n = in.readInt(); n > 0; n--) {
+            String metric = in.readUTF();
+            histogram(metric).add(LatencyHistogram.Snapshot.readFrom(in));
+        }
+    }
+
+    public void printSummary(GateManager... gateManagers) {
         System.out.println("\n╔════════════════════════════════════════════════════════╗");
         System.out.println("║          AIRPORT SANITY CHECKS & STATISTICS           ║");
         System.out.println("╔════════════════════════════════════════════════════════╗");
 
         // SANITY CHECK: Verify all gates are empty
         System.out.println("\n--- SANITY CHECKS ---");
-        boolean allGatesEmpty = gateManager.allGatesEmpty();
+        boolean allGatesEmpty = true;
+        for (GateManager gateManager : gateManagers) allGatesEmpty &= gateManager.allGatesEmpty();
 
         if (allGatesEmpty) {
             System.out.println("✓ Gate Status Check: PASSED");
@@ -36,38 +177,65 @@ public class StatisticsManager {
         }
 
         System.out.println("\nDetailed Gate Status:");
-        System.out.println(gateManager.getGateStatusSummary());
+        for (GateManager gateManager : gateManagers) System.out.println(gateManager.getGateStatusSummary());
 
         // STATISTICS
         System.out.println("--- OPERATIONAL STATISTICS ---");
 
-        if (waitingTimes.isEmpty()) {
+        LatencyHistogram.Snapshot waiting = snapshot(WAITING_TIME);
+        if (waiting.getCount() == 0) {
             System.out.println("No data recorded.");
             System.out.println("╚════════════════════════════════════════════════════════╝");
             return;
         }
 
-        long max = Collections.max(waitingTimes);
-        long min = Collections.min(waitingTimes);
-        double avg = waitingTimes.stream().mapToLong(Long::longValue).average().orElse(0);
-
-        System.out.println("Planes Served: " + planesServed + " / 6 expected");
-        System.out.println("Total Passengers Boarded: " + totalPassengers + " passengers");
+        long served = planesServed.sum();
+        long divertedPlanes = diverted.sum();
+        System.out.println("Planes Served: " + served + " / " + expectedPlanes + " expected");
+        if (divertedPlanes > 0) {
+            System.out.println("Planes Diverted (holding full): " + divertedPlanes + ", of which "
+                    + shed.sum() + " shed from holding");
+        }
+        if (rerouted.sum() > 0) {
+            System.out.println("Planes Rerouted To Another Airport: " + rerouted.sum() + ", of which "
+                    + reroutedLowFuel.sum() + " at bingo fuel");
+        }
+        if (fuelExhausted.sum() > 0) {
+            System.out.println("✗ Planes Out Of Fuel Before Reaching An Airport: " + fuelExhausted.sum());
+        }
+        System.out.println("Total Passengers Boarded: " + totalPassengers.sum() + " passengers");
         System.out.println("\nWaiting Time Analysis:");
-        System.out.println("  Maximum: " + formatTime(max));
-        System.out.println("  Minimum: " + formatTime(min));
-        System.out.println("  Average: " + formatTime((long)avg));
+        System.out.println("  Maximum: " + formatTime(waiting.getMax()));
+        System.out.println("  Minimum: " + formatTime(waiting.getMin()));
+        System.out.println("  Average: " + formatTime((long) waiting.getMean()));
+        printPercentiles(waiting);
 
+        for (String metric : metricOrder) {
+            if (metric.equals(WAITING_TIME)) continue;
+            LatencyHistogram.Snapshot snap = snapshot(metric);
+            System.out.println("\n" + metric + ":");
+            System.out.println("  Samples: " + snap.getCount());
+            System.out.println("  Maximum: " + formatTime(snap.getMax()));
+            System.out.println("  Average: " + formatTime((long) snap.getMean()));
+            printPercentiles(snap);
+        }
         System.out.println("\n╚════════════════════════════════════════════════════════╝");
 
         // Final validation
-        if (allGatesEmpty && planesServed == 6) {
+        if (allGatesEmpty && served + divertedPlanes == expectedPlanes) {
             System.out.println("✓✓✓ SIMULATION COMPLETED SUCCESSFULLY ✓✓✓");
         } else {
             System.out.println("⚠️  SIMULATION COMPLETED WITH ISSUES ⚠️");
         }
     }
 
+    private void printPercentiles(LatencyHistogram.Snapshot snap) {
+        System.out.println("  p50: " + formatTime(snap.percentile(0.50))
+                + " | p90: " + formatTime(snap.percentile(0.90))
+                + " | p99: " + formatTime(snap.percentile(0.99))
+                + " | p99.9: " + formatTime(snap.percentile(0.999)));
+    }
+
     private String formatTime(long millis) {
         if (millis < 1000) {
             return millis + " ms";
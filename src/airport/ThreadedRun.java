@@ -0,0 +1,71 @@
+package airport;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Drives the threaded model: each flight is released on the airport's executor at its
+// scheduled time, and run() returns once every plane has departed or diverted. The
+// thread running a plane carries the plane's name, as the original one-thread-per-plane
+// version did, so thread dumps and profilers show which plane is where.
+public class ThreadedRun {
+    private final Iterator<ScheduledFlight> arrivals;
+    private final Airport airport;
+    private final AtomicLong inFlight = new AtomicLong();
+    // Planes still turning around, plus one for the thread releasing them; unlike a Phaser
+    // (at most 65,535 parties) this has no limit on the planes in flight
+    private final AtomicLong unfinished = new AtomicLong(1);
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+    private int count = 0;
+
+    public ThreadedRun(Iterator<ScheduledFlight> arrivals, Airport airport) {
+        this.arrivals = arrivals;
+        this.airport = airport;
+    }
+
+    // Returns the number of planes that arrived
+    public long run() {
+        ExecutorService executor = airport.getExecutor();
+        SimulationClock clock = airport.getClock();
+        long start = clock.now();
+
+        while (arrivals.hasNext()) {
+            ScheduledFlight flight = arrivals.next();
+            Plane plane = new Plane(++count, airport, flight);
+            try { clock.sleep(start + flight.arrivalMillis() - clock.now()); } catch (InterruptedException ignored) {}
+            unfinished.incrementAndGet();
+            peakInFlight.accumulate(inFlight.incrementAndGet());
+            executor.execute(() -> {
+                Thread thread = Thread.currentThread();
+                String poolName = thread.getName();
+                thread.setName(plane.getName());
+                try {
+                    plane.run();
+                } finally {
+                    thread.setName(poolName);
+                    inFlight.decrementAndGet();
+                    finished();
+                }
+            });
+        }
+
+        // wait all planes to finish
+        finished();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        return count;
+    }
+
+    private void finished() {
+        if (unfinished.decrementAndGet() == 0) done.countDown();
+    }
+
+    // Most planes that were between arrival and departure at the same time
+    public long getPeakInFlight() { return peakInFlight.get(); }
+}
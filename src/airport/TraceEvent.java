@@ -0,0 +1,37 @@
+package airport;
+
+// Lifecycle events in a binary trace (see TraceWriter). The code is what goes in the
+// file, so existing codes must never change; 0 marks an unused record slot.
+public enum TraceEvent {
+    ARRIVED(1),            // resource: none
+    LANDING_REQUESTED(2),  // resource: none
+    EMERGENCY(3),          // resource: none
+    LANDING_CLEARED(4),    // resource: runway
+    GATE_RESERVED(5),      // resource: gate
+    LANDED(6),             // resource: runway
+    DOCKED(7),             // resource: gate
+    RUNWAY_RELEASED(8),    // resource: runway
+    TURNAROUND_DONE(9),    // resource: gate
+    GATE_RELEASED(10),     // resource: gate
+    TAKEOFF_REQUESTED(11), // resource: none
+    TAKEOFF_CLEARED(12),   // resource: runway
+    DEPARTED(13),          // resource: runway
+    DIVERTED(14),          // resource: none; on arrival or shed from holding
+    HELD_AT_ORIGIN(15);    // resource: none; the plane will arrive again later
+
+    private static final TraceEvent[] BY_CODE = new TraceEvent[64];
+    static {
+        for (TraceEvent e : values()) BY_CODE[e.code] = e;
+    }
+
+    private final short code;
+
+    TraceEvent(int code) { this.code = (short) code; }
+
+    public short getCode() { return code; }
+
+    // null for 0 and for codes this version does not know
+    public static TraceEvent fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
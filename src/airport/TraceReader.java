@@ -0,0 +1,133 @@
+package airport;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Streams the records of a TraceWriter file in file order, skipping unused slots.
+// Each thread's events are in time order, but events from different stripes are
+// grouped by chunk, so sort by time when the interleaving matters.
+//
+// Usage: java -cp ... airport.TraceReader TRACE [OUT.csv]   (CSV goes to stdout without OUT)
+public class TraceReader implements Iterator<TraceReader.Record>, Closeable {
+    public static final String CSV_HEADER = "time_ms,plane,event,resource";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public record Record(long timeMillis, int planeId, TraceEvent event, int resourceId) {}
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private boolean eof = false;
+    private Record next;
+
+    public TraceReader(Path path) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(TraceWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < TraceWriter.HEADER_BYTES || header.getLong() != TraceWriter.MAGIC) {
+                channel.close();
+                throw new IllegalArgumentException(path + ": not an airport trace");
+            }
+            if (header.getInt() != TraceWriter.RECORD_BYTES) {
+                channel.close();
+                throw new IllegalArgumentException(path + ": unsupported record size");
+            }
+            channel.position(TraceWriter.HEADER_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip(); // start empty, in read mode
+        next = readRecord();
+    }
+
+    @Override
+    public boolean hasNext() { return next != null; }
+
+    @Override
+    public Record next() {
+        if (next == null) throw new NoSuchElementException();
+        Record r = next;
+        next = readRecord();
+        return r;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Record readRecord() {
+        while (true) {
+            if (buffer.remaining() < TraceWriter.RECORD_BYTES) {
+                if (eof) return null;
+                fill();
+                continue;
+            }
+            long time = buffer.getLong();
+            int plane = buffer.getInt();
+            short resource = buffer.getShort();
+            TraceEvent event = TraceEvent.fromCode(buffer.getShort());
+            if (event != null) return new Record(time, plane, event, resource);
+        }
+    }
+
+    private void fill() {
+        buffer.compact();
+        try {
+            if (channel.read(buffer) < 0) eof = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+    }
+
+    // Writes every record as one CSV line; returns how many were written
+    public static long toCsv(Path trace, Writer out) throws IOException {
+        long count = 0;
+        try (TraceReader reader = new TraceReader(trace)) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+            StringBuilder line = new StringBuilder(64);
+            while (reader.hasNext()) {
+                Record r = reader.next();
+                line.setLength(0);
+                line.append(r.timeMillis()).append(',').append(r.planeId()).append(',')
+                        .append(r.event()).append(',').append(r.resourceId()).append('\n');
+                out.append(line);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) throw new IllegalArgumentException("Usage: TraceReader TRACE [OUT.csv]");
+        Path trace = Path.of(args[0]);
+        if (args.length == 2) {
+            try (Writer out = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.US_ASCII)) {
+                long count = toCsv(trace, out);
+                System.out.println("Wrote " + count + " events to " + args[1]);
+            }
+        } else {
+            toCsv(trace, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII)));
+        }
+    }
+}
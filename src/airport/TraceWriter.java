@@ -0,0 +1,158 @@
+package airport;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Optional binary trace of every plane's lifecycle, for analysis after the run
+// (TraceReader turns it into CSV). Each event is one fixed-width little-endian record:
+//
+//   long  time      simulation millis
+//   int   plane id
+//   short resource  runway, gate or -1, see TraceEvent
+//   short event     TraceEvent code, written last; 0 = unused slot
+//
+// The file is a 16-byte header followed by 1 MB chunks, each memory-mapped and filled
+// by one stripe of threads. A thread always writes to the same stripe, so with platform
+// threads a stripe is in effect a per-thread buffer, while thousands of virtual threads
+// still share a handful of mappings. Recording is a flag check when tracing is off and a
+// counter bump plus four stores into the mapping when it is on; there is no system call
+// except when a stripe maps its next chunk.
+public final class TraceWriter implements Closeable {
+    public static final int RECORD_BYTES = 16;
+    public static final int HEADER_BYTES = 16;
+    public static final long MAGIC = 0x3130_4543_5254_5041L; // "APTRCE01" in file byte order
+    static final int CHUNK_BYTES = 1 << 20;
+    private static final int RECORDS_PER_CHUNK = CHUNK_BYTES / RECORD_BYTES;
+
+    private static volatile TraceWriter active; // null = tracing is off
+
+    private final FileChannel channel;
+    private final Path path;
+    private final SimulationClock clock;
+    private final Stripe[] stripes;
+    private final AtomicLong nextChunk = new AtomicLong();
+    private final AtomicLong fullChunks = new AtomicLong();
+
+    private static class Chunk {
+        final MappedByteBuffer buffer; // null for the empty placeholder a stripe starts with
+        final AtomicInteger cursor;
+
+        Chunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.cursor = new AtomicInteger(buffer == null ? CHUNK_BYTES : 0);
+        }
+    }
+
+    private static class Stripe {
+        final ReentrantLock lock = new ReentrantLock(); // only taken to swap in a new chunk
+        volatile Chunk chunk = new Chunk(null);
+    }
+
+    private TraceWriter(Path path, SimulationClock clock) throws IOException {
+        this.path = path;
+        this.clock = clock;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(RECORD_BYTES).putInt(CHUNK_BYTES).flip();
+        channel.write(header, 0);
+
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+    }
+
+    // Starts tracing every airport in this JVM to 'path', replacing any existing file
+    public static TraceWriter open(Path path, SimulationClock clock) {
+        try {
+            TraceWriter writer = new TraceWriter(path, clock);
+            active = writer;
+            return writer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static boolean isEnabled() { return active != null; }
+
+    public static void record(TraceEvent event, int planeId, int resourceId) {
+        TraceWriter writer = active;
+        if (writer != null) writer.write(event, planeId, resourceId);
+    }
+
+    private void write(TraceEvent event, int planeId, int resourceId) {
+        long time = clock.now();
+        Stripe stripe = stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+        while (true) {
+            Chunk chunk = stripe.chunk;
+            int pos = chunk.cursor.getAndAdd(RECORD_BYTES);
+            if (pos < CHUNK_BYTES) {
+                MappedByteBuffer b = chunk.buffer;
+                b.putLong(pos, time);
+                b.putInt(pos + 8, planeId);
+                b.putShort(pos + 12, (short) resourceId);
+                b.putShort(pos + 14, event.getCode());
+                return;
+            }
+            if (!nextChunk(stripe, chunk)) return;
+        }
+    }
+
+    // Replaces a stripe's full chunk with a freshly mapped one; false if tracing had to stop
+    private boolean nextChunk(Stripe stripe, Chunk full) {
+        stripe.lock.lock();
+        try {
+            if (stripe.chunk != full) return true; // another thread on this stripe already did it
+            long index = nextChunk.getAndIncrement();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + index * CHUNK_BYTES, CHUNK_BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            stripe.chunk = new Chunk(buffer);
+            if (full.buffer != null) fullChunks.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            // Losing the trace must not take the simulation down with it
+            active = null;
+            System.err.println("Tracing stopped, could not extend " + path + ": " + e.getMessage());
+            return false;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Events written so far; exact once no thread is recording
+    public long getRecordCount() {
+        long records = fullChunks.get() * RECORDS_PER_CHUNK;
+        for (Stripe s : stripes) {
+            Chunk c = s.chunk;
+            if (c.buffer != null) records += Math.min(c.cursor.get(), CHUNK_BYTES) / RECORD_BYTES;
+        }
+        return records;
+    }
+
+    public Path getPath() { return path; }
+
+    // Stops tracing and flushes the mappings; call once the simulation has finished
+    @Override
+    public void close() {
+        if (active == this) active = null;
+        try {
+            for (Stripe s : stripes) {
+                Chunk c = s.chunk;
+                if (c.buffer != null) c.buffer.force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package airport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AirportLoggerTest {
+    @TempDir
+    Path dir;
+
+    // Switching files while other threads keep logging must neither lose nor repeat a line
+    @Test
+    void switchingFilesKeepsEveryLine() throws Exception {
+        AirportLogger.Level level = AirportLogger.getLevel();
+        AirportLogger.setLevel(AirportLogger.Level.INFO);
+        AirportLogger.setOverflowPolicy(AirportLogger.OverflowPolicy.BLOCK, 65_536);
+        AirportLogger.toFile(dir.resolve("log-0.txt"));
+        AtomicBoolean running = new AtomicBoolean(true);
+        int[] counts = new int[4];
+        List<Thread> loggers = new ArrayList<>();
+        for (int t = 0; t < counts.length; t++) {
+            int id = t;
+            loggers.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) AirportLogger.log("T" + id, String.valueOf(counts[id]++));
+            }));
+        }
+        try {
+            for (int i = 1; i <= 20; i++) {
+                Thread.sleep(10);
+                AirportLogger.toFile(dir.resolve("log-" + i + ".txt"));
+            }
+        } finally {
+            running.set(false);
+            for (Thread t : loggers) t.join();
+            AirportLogger.flush();
+            AirportLogger.setLevel(level);
+        }
+
+        Set<String> lines = new HashSet<>();
+        long total = 0;
+        for (int i = 0; i <= 20; i++) {
+            for (String line : Files.readAllLines(dir.resolve("log-" + i + ".txt"))) {
+                lines.add(line.substring(line.indexOf("] [") + 2)); // drop the timestamp
+                total++;
+            }
+        }
+        long logged = 0;
+        for (int t = 0; t < counts.length; t++) {
+            logged += counts[t];
+            for (int n = 0; n < counts[t]; n += 997) assertContains(lines, "[T" + t + "] " + n);
+        }
+        assertEquals(logged, total, "lines written");
+        assertEquals(total, lines.size(), "distinct lines");
+    }
+
+    private static void assertContains(Set<String> lines, String line) throws IOException {
+        if (!lines.contains(line)) throw new AssertionError("missing line: " + line);
+    }
+}
@@ -0,0 +1,108 @@
+package airport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecisionLogTest {
+    @TempDir
+    Path dir;
+
+    private Path recordThree() {
+        Path path = dir.resolve("decisions.bin");
+        try (DecisionLog log = DecisionLog.record(path)) {
+            log.start(0);
+            log.decide(DecisionLog.Kind.LANDING_GRANT, 100, 1, 1 << 16 | 3);
+            assertEquals(42, log.draw(150, 1, 42));
+            log.decide(DecisionLog.Kind.TAKEOFF_GRANT, 900, 1, 0);
+            assertEquals(3, log.getPosition());
+        }
+        return path;
+    }
+
+    @Test
+    void replayOfTheSameDecisionsMatches() {
+        Path path = recordThree();
+        try (DecisionLog log = DecisionLog.replay(path)) {
+            log.start(0);
+            log.decide(DecisionLog.Kind.LANDING_GRANT, 100, 1, 1 << 16 | 3);
+            assertEquals(42, log.draw(150, 1, 7)); // the logged draw wins
+            log.decide(DecisionLog.Kind.TAKEOFF_GRANT, 900, 1, 0);
+            log.verifyComplete();
+            assertEquals(3, log.getPosition());
+        }
+    }
+
+    @Test
+    void replayStopsAtTheFirstDifferentDecision() {
+        Path path = recordThree();
+        try (DecisionLog log = DecisionLog.replay(path)) {
+            log.start(0);
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> log.decide(DecisionLog.Kind.LANDING_GRANT, 100, 1, 1 << 16 | 4));
+            assertTrue(e.getMessage().startsWith("Replay diverged at decision 0"), e.getMessage());
+        }
+    }
+
+    @Test
+    void replayNoticesExtraOrMissingDecisions() {
+        Path path = recordThree();
+        try (DecisionLog log = DecisionLog.replay(path)) {
+            log.start(0);
+            log.decide(DecisionLog.Kind.LANDING_GRANT, 100, 1, 1 << 16 | 3);
+            assertThrows(IllegalStateException.class, log::verifyComplete);
+        }
+        try (DecisionLog log = DecisionLog.replay(path)) {
+            log.start(0);
+            log.decide(DecisionLog.Kind.LANDING_GRANT, 100, 1, 1 << 16 | 3);
+            log.draw(150, 1, 42);
+            log.decide(DecisionLog.Kind.TAKEOFF_GRANT, 900, 1, 0);
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> log.decide(DecisionLog.Kind.TAKEOFF_GRANT, 950, 2, 0));
+            assertTrue(e.getMessage().contains("the log ended"), e.getMessage());
+        }
+    }
+
+    @Test
+    void replayCanStartPartWayThrough() {
+        Path path = recordThree();
+        try (DecisionLog log = DecisionLog.replay(path)) {
+            log.start(2);
+            log.decide(DecisionLog.Kind.TAKEOFF_GRANT, 900, 1, 0);
+            log.verifyComplete();
+        }
+    }
+
+    @Test
+    void replayCannotStartBeforeTheLog() throws IOException {
+        Path path = dir.resolve("late.bin");
+        try (DecisionLog log = DecisionLog.record(path)) {
+            log.start(5);
+            log.decide(DecisionLog.Kind.EMERGENCY, 10, 2, -1);
+        }
+        try (DecisionLog log = DecisionLog.replay(path)) {
+            assertThrows(IllegalArgumentException.class, () -> log.start(4));
+        }
+        Path notALog = Files.write(dir.resolve("junk.bin"), new byte[32]);
+        try (DecisionLog log = DecisionLog.replay(notALog)) {
+            assertThrows(IllegalArgumentException.class, () -> log.start(0));
+        }
+    }
+
+    @Test
+    void flushPutsEveryDecisionOnDisk() throws IOException {
+        Path path = dir.resolve("flushed.bin");
+        try (DecisionLog log = DecisionLog.record(path)) {
+            log.start(0);
+            log.decide(DecisionLog.Kind.TRUCK_DISPATCH, 10, 4, 1);
+            log.decide(DecisionLog.Kind.DIVERSION, 20, 5, 0);
+            log.flush();
+            assertEquals(16 + 2 * 17, Files.size(path));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package airport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The fleet engine must make the same choices as the discrete-event engine it stands in
+// for: with the same seed and airport, both serve, divert and delay the same planes by the
+// same amounts, so every counter and every histogram comes out identical.
+class EngineEquivalenceTest {
+    private record Scenario(int planes, int interArrival, int gates, int trucks, String[] runways, long separation,
+                            int holding, HoldingPolicy policy, long seed) {}
+
+    @Test
+    void steadyTrafficMatches() {
+        assertSameOutcome(new Scenario(2000, 2500, 3, 1, new String[] {"mixed"}, 0, 0, HoldingPolicy.DIVERT, 7));
+    }
+
+    @Test
+    void splitRunwaysWithSeparationMatch() {
+        assertSameOutcome(new Scenario(2000, 1200, 6, 2, new String[] {"arrivals", "departures"}, 5000, 0,
+                HoldingPolicy.DIVERT, 11));
+    }
+
+    @Test
+    void boundedHoldingMatches() {
+        for (HoldingPolicy policy : HoldingPolicy.values()) {
+            assertSameOutcome(new Scenario(2000, 800, 3, 1, new String[] {"mixed"}, 0, 5, policy, 3));
+        }
+    }
+
+    private static void assertSameOutcome(Scenario s) {
+        AirportLogger.setEnabled(false);
+        StatisticsManager des = runDiscreteEvent(s);
+        StatisticsManager fleet = runFleet(s);
+
+        assertTrue(des.getPlanesServed() > 0);
+        assertEquals(des.getPlanesServed(), fleet.getPlanesServed(), "planes served");
+        assertEquals(des.getTotalPassengers(), fleet.getTotalPassengers(), "passengers");
+        assertEquals(des.getDiverted(), fleet.getDiverted(), "diverted");
+        assertEquals(des.getShed(), fleet.getShed(), "shed");
+        assertEquals(new TreeSet<>(des.getMetricNames()), new TreeSet<>(fleet.getMetricNames()));
+        for (String metric : des.getMetricNames()) {
+            LatencyHistogram.Snapshot a = des.snapshot(metric);
+            LatencyHistogram.Snapshot b = fleet.snapshot(metric);
+            assertEquals(a.getCount(), b.getCount(), metric + " count");
+            assertEquals(a.getMin(), b.getMin(), metric + " min");
+            assertEquals(a.getMax(), b.getMax(), metric + " max");
+            assertEquals(a.getMean(), b.getMean(), metric + " mean");
+            assertEquals(a.percentile(0.99), b.percentile(0.99), metric + " p99");
+        }
+    }
+
+    private static List<Runway> runways(Scenario s) {
+        List<Runway> runways = new ArrayList<>();
+        for (String mode : s.runways()) {
+            runways.add(new Runway(runways.size() + 1, Runway.Mode.valueOf(mode.toUpperCase()), s.separation()));
+        }
+        return runways;
+    }
+
+    private static StatisticsManager runDiscreteEvent(Scenario s) {
+        EventScheduler sim = new EventScheduler();
+        StatisticsManager stats = new StatisticsManager(s.planes());
+        AirTrafficController atc = new AirTrafficController(stats, sim, runways(s));
+        if (s.holding() > 0) atc.setHoldingPolicy(s.policy(), s.holding(), 60_000);
+        RefuelDispatcher refuel = new RefuelDispatcher(s.trucks(), s.gates(), stats, sim);
+        GroundOperations ground = new GroundOperations(GroundOperations.defaultCrews(s.gates()), refuel, stats, sim,
+                sim);
+        Airport airport = new Airport(sim, stats, atc, new GateManager(s.gates()), refuel, ground,
+                FuelMonitor.discreteEvent(sim), null, s.seed());
+        new ArrivalFeed(sim, ArrivalFeed.demo(s.planes(), s.interArrival(), airport.newRandom(0)), airport).start();
+        sim.run();
+        return stats;
+    }
+
+    private static StatisticsManager runFleet(Scenario s) {
+        StatisticsManager stats = new StatisticsManager(s.planes());
+        FleetSimulation sim = new FleetSimulation(new FleetStore(s.planes(), s.seed()), stats, new GateManager(s.gates()),
+                runways(s), s.trucks(), GroundOperations.defaultCrews(s.gates()), s.seed());
+        if (s.holding() > 0) sim.setHoldingPolicy(s.policy(), s.holding(), 60_000);
+        sim.load(ArrivalFeed.demo(s.planes(), s.interArrival(), sim.newRandom(0)));
+        sim.run();
+        return stats;
+    }
+}
@@ -0,0 +1,134 @@
+package airport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreeGateIndexTest {
+    @Test
+    void claimsTheLowestFreeSlot() {
+        FreeGateIndex index = new FreeGateIndex(3);
+        assertEquals(0, index.claim());
+        assertEquals(1, index.claim());
+        assertEquals(2, index.claim());
+        assertEquals(-1, index.claim());
+        assertFalse(index.hasFree());
+
+        index.release(1);
+        assertEquals(1, index.freeCount());
+        assertEquals(1, index.claim());
+    }
+
+    @Test
+    void spansSeveralWords() {
+        FreeGateIndex index = new FreeGateIndex(130);
+        for (int i = 0; i < 130; i++) assertEquals(i, index.claim());
+        assertEquals(-1, index.claim());
+
+        index.release(129);
+        index.release(64);
+        assertEquals(64, index.claim());
+        assertEquals(129, index.claim());
+        assertEquals(0, index.freeCount());
+    }
+
+    @Test
+    void rejectsBadReleases() {
+        FreeGateIndex index = new FreeGateIndex(2);
+        assertThrows(IllegalStateException.class, () -> index.release(0));
+        assertThrows(IllegalArgumentException.class, () -> index.release(2));
+        assertThrows(IllegalArgumentException.class, () -> index.release(-1));
+    }
+
+    @Test
+    void concurrentClaimsNeverShareASlot() throws Exception {
+        FreeGateIndex index = new FreeGateIndex(4);
+        AtomicIntegerArray held = new AtomicIntegerArray(4);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        int slot = index.claim();
+                        if (slot < 0) continue;
+                        if (!held.compareAndSet(slot, 0, 1)) throw new AssertionError("slot " + slot + " claimed twice");
+                        held.set(slot, 0);
+                        index.release(slot);
+                    }
+                }));
+            }
+            for (Future<?> w : workers) w.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(4, index.freeCount());
+    }
+
+    @Test
+    void claimOrWaitParksUntilASlotIsReleased() throws Exception {
+        FreeGateIndex index = new FreeGateIndex(1);
+        assertEquals(0, index.claim());
+        CompletableFuture<Integer> waiter = new CompletableFuture<>();
+        Thread t = Thread.ofVirtual().start(() -> {
+            try {
+                waiter.complete(index.claimOrWait());
+            } catch (InterruptedException e) {
+                waiter.completeExceptionally(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiter.isDone());
+
+        index.release(0);
+        assertEquals(0, waiter.get(5, TimeUnit.SECONDS));
+        t.join();
+    }
+
+    @Test
+    void claimOrWaitStopsWhenInterrupted() throws Exception {
+        FreeGateIndex index = new FreeGateIndex(1);
+        index.claim();
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        Thread t = Thread.ofVirtual().start(() -> {
+            try {
+                index.claimOrWait();
+            } catch (InterruptedException e) {
+                failure.complete(e);
+            }
+        });
+        Thread.sleep(50);
+        t.interrupt();
+        assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof InterruptedException);
+    }
+
+    // More waiters than slots, each cycling many times: a lost wake-up leaves one parked for good
+    @Test
+    void waitersAreNeverStranded() throws Exception {
+        FreeGateIndex index = new FreeGateIndex(2);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) index.release(index.claimOrWait());
+                    return null;
+                }));
+            }
+            for (Future<?> w : workers) w.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(2, index.freeCount());
+    }
+}
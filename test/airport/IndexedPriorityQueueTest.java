@@ -0,0 +1,111 @@
+package airport;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedPriorityQueueTest {
+    private static final class Item extends IndexedPriorityQueue.Handle {
+        int priority;
+
+        Item(int priority) { this.priority = priority; }
+    }
+
+    private static IndexedPriorityQueue<Item> newQueue() {
+        return new IndexedPriorityQueue<>(Comparator.comparingInt((Item i) -> i.priority));
+    }
+
+    private static List<Integer> drain(IndexedPriorityQueue<Item> queue) {
+        List<Integer> order = new ArrayList<>();
+        for (Item i; (i = queue.poll()) != null; ) order.add(i.priority);
+        return order;
+    }
+
+    @Test
+    void pollsInPriorityOrder() {
+        IndexedPriorityQueue<Item> queue = newQueue();
+        Random random = new Random(1);
+        List<Integer> expected = new ArrayList<>();
+        for (int n = 0; n < 1000; n++) {
+            int p = random.nextInt(500);
+            expected.add(p);
+            queue.add(new Item(p));
+        }
+        expected.sort(null);
+        assertEquals(1000, queue.size());
+        assertEquals(expected, drain(queue));
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    void removesAnyQueuedElement() {
+        IndexedPriorityQueue<Item> queue = newQueue();
+        List<Item> items = new ArrayList<>();
+        for (int p = 0; p < 50; p++) {
+            Item item = new Item(p);
+            items.add(item);
+            queue.add(item);
+        }
+        for (int p = 0; p < 50; p += 3) assertTrue(queue.remove(items.get(p)));
+        assertFalse(items.get(0).isQueued());
+        assertFalse(queue.remove(items.get(0)));
+
+        List<Integer> expected = new ArrayList<>();
+        for (int p = 0; p < 50; p++) if (p % 3 != 0) expected.add(p);
+        assertEquals(expected, drain(queue));
+    }
+
+    @Test
+    void updateReordersAfterAPriorityChange() {
+        IndexedPriorityQueue<Item> queue = newQueue();
+        Item a = new Item(10);
+        Item b = new Item(20);
+        Item c = new Item(30);
+        queue.add(a);
+        queue.add(b);
+        queue.add(c);
+
+        c.priority = 1;
+        queue.update(c);
+        assertEquals(c, queue.peek());
+        c.priority = 40;
+        queue.update(c);
+        assertEquals(List.of(10, 20, 40), drain(queue));
+    }
+
+    @Test
+    void rejectsMisuse() {
+        IndexedPriorityQueue<Item> queue = newQueue();
+        Item item = new Item(1);
+        assertThrows(IllegalStateException.class, () -> queue.update(item));
+        queue.add(item);
+        assertThrows(IllegalStateException.class, () -> queue.add(item));
+    }
+
+    @Test
+    void forEachInOrderVisitsTheFirstElementsWithoutPolling() {
+        IndexedPriorityQueue<Item> queue = newQueue();
+        Random random = new Random(2);
+        List<Integer> all = new ArrayList<>();
+        for (int n = 0; n < 200; n++) {
+            int p = random.nextInt(1000);
+            all.add(p);
+            queue.add(new Item(p));
+        }
+        all.sort(null);
+
+        List<Integer> visited = new ArrayList<>();
+        queue.forEachInOrder(15, i -> visited.add(i.priority));
+        assertEquals(all.subList(0, 15), visited);
+        assertEquals(200, queue.size());
+        assertEquals(all, drain(queue));
+    }
+}
@@ -0,0 +1,99 @@
+package airport;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 0; v < 100; v++) h.record(v);
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(100, s.getCount());
+        assertEquals(0, s.getMin());
+        assertEquals(99, s.getMax());
+        assertEquals(49.5, s.getMean(), 1e-9);
+        assertEquals(49, s.percentile(0.5));
+        assertEquals(98, s.percentile(0.99));
+        assertEquals(99, s.percentile(1));
+    }
+
+    @Test
+    void largeValuesStayWithinTheBucketError() {
+        Random random = new Random(3);
+        for (int n = 0; n < 100_000; n++) {
+            long v = 128 + (random.nextLong() >>> random.nextInt(1, 63));
+            long reported = LatencyHistogram.valueOf(LatencyHistogram.indexOf(v));
+            assertTrue(Math.abs(reported - v) <= v / 64.0, v + " reported as " + reported);
+        }
+    }
+
+    @Test
+    void percentilesStayInsideTheRecordedRange() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(1_000_003);
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(1_000_003, s.percentile(0.5));
+        assertEquals(1_000_003, s.percentile(0.99));
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        assertEquals(0, h.snapshot().getMin());
+        assertEquals(0, h.snapshot().getMax());
+    }
+
+    @Test
+    void emptySnapshotIsAllZero() {
+        LatencyHistogram.Snapshot s = new LatencyHistogram().snapshot();
+        assertEquals(0, s.getCount());
+        assertEquals(0, s.getMin());
+        assertEquals(0, s.getMax());
+        assertEquals(0, s.getMean());
+        assertEquals(0, s.percentile(0.99));
+    }
+
+    @Test
+    void addMergesAnotherSnapshot() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int v = 1; v <= 10; v++) a.record(v);
+        for (int v = 1_000; v <= 1_010; v++) b.record(v);
+        a.add(b.snapshot());
+        a.add(new LatencyHistogram().snapshot());
+
+        LatencyHistogram.Snapshot s = a.snapshot();
+        assertEquals(21, s.getCount());
+        assertEquals(1, s.getMin());
+        assertEquals(1_010, s.getMax());
+        assertEquals((55 + 11_055) / 21.0, s.getMean(), 1e-9);
+    }
+
+    @Test
+    void snapshotSurvivesACheckpointRoundTrip() throws IOException {
+        LatencyHistogram h = new LatencyHistogram();
+        Random random = new Random(4);
+        for (int n = 0; n < 10_000; n++) h.record(random.nextInt(5_000_000));
+        LatencyHistogram.Snapshot before = h.snapshot();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        before.writeTo(new DataOutputStream(bytes));
+        LatencyHistogram.Snapshot after = LatencyHistogram.Snapshot.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(before.getCount(), after.getCount());
+        assertEquals(before.getMin(), after.getMin());
+        assertEquals(before.getMax(), after.getMax());
+        assertEquals(before.getMean(), after.getMean());
+        for (double q : new double[] {0.1, 0.5, 0.9, 0.99, 0.999}) assertEquals(before.percentile(q), after.percentile(q));
+    }
+}
@@ -0,0 +1,103 @@
+package airport;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Scale check for the virtual-thread mode: every plane arrives at time 0, so all of them
+// are in flight together, each on its own virtual thread. Passes only if every plane was
+// in flight at once and finished, the heap stayed under MAX_HEAP_MB, and no virtual thread
+// pinned its carrier thread (JFR jdk.VirtualThreadPinned, no threshold). The build runs it
+// in its own JVM with -Xmx1g, so running out of memory fails it too.
+class ScaleCheckTest {
+    // Holds every plane at its first sleep until the whole fleet is in flight. Starting
+    // 50,000 threads takes longer on a slow machine than one plane's turnaround at 1000x,
+    // so without the hold the first planes could leave before the last ones arrive.
+    private static final class HeldClock extends ScaledClock {
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        HeldClock(double factor) { super(factor); }
+
+        @Override
+        public void sleep(long simulatedMillis) throws InterruptedException {
+            if (simulatedMillis <= 0) return; // the arrival loop sleeps 0 ms between planes
+            released.await();
+            super.sleep(simulatedMillis);
+        }
+    }
+
+    private static final int PLANES = 50_000;
+    private static final long MAX_HEAP_MB = 768;
+    private static final double TIME_SCALE = 1000;
+    private static final int GATES = 256;
+    private static final int RUNWAYS = 16;
+
+    @Test
+    void fiftyThousandPlanesInFlightAtOnce() {
+        AirportLogger.setEnabled(false);
+        LongAdder pinned = new LongAdder();
+        AtomicReference<RecordedEvent> firstPin = new AtomicReference<>();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP).toList();
+
+        long arrived;
+        long peakInFlight;
+        StatisticsManager stats = new StatisticsManager(PLANES);
+        try (RecordingStream pins = new RecordingStream()) {
+            pins.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            pins.onEvent("jdk.VirtualThreadPinned", e -> {
+                pinned.increment();
+                firstPin.compareAndSet(null, e);
+            });
+            pins.startAsync();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            HeldClock clock = new HeldClock(TIME_SCALE);
+            ThreadedRun run = new ThreadedRun(ArrivalFeed.demo(PLANES, 1, new Random(1)), // all at t = 0
+                    newAirport(stats, clock));
+            Thread.ofPlatform().daemon().start(() -> {
+                // Gives up after a minute, so a run that never gets everyone airborne still ends
+                long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+                while (run.getPeakInFlight() < PLANES && System.nanoTime() < deadline) LockSupport.parkNanos(1_000_000);
+                clock.released.countDown();
+            });
+            arrived = run.run();
+            peakInFlight = run.getPeakInFlight();
+            pins.stop(); // returns once every recorded event has been handed to onEvent
+        }
+        long peakHeapMb = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() >> 20;
+
+        assertEquals(PLANES, arrived);
+        assertEquals(PLANES, peakInFlight, "planes in flight together");
+        assertEquals(PLANES, stats.getPlanesServed() + stats.getDiverted(), "planes that finished");
+        assertTrue(peakHeapMb <= MAX_HEAP_MB, "heap peaked at " + peakHeapMb + " MB");
+        assertEquals(0, pinned.sum(), () -> "virtual threads pinned their carrier, first at:\n"
+                + firstPin.get().getStackTrace());
+    }
+
+    private static Airport newAirport(StatisticsManager stats, SimulationClock clock) {
+        List<Runway> runways = new ArrayList<>();
+        for (int i = 1; i <= RUNWAYS; i++) runways.add(new Runway(i, Runway.Mode.MIXED, 0));
+        AirTrafficController atc = new AirTrafficController(stats, clock, runways);
+        RefuelDispatcher refuel = new RefuelDispatcher(GATES / 4, GATES, stats, clock);
+        GroundOperations ground = new GroundOperations(new int[] {GATES, GATES, GATES}, refuel, stats, clock,
+                Scheduler.delayed(ForkJoinPool.commonPool(), clock));
+        return new Airport(clock, stats, atc, new GateManager(GATES), refuel, ground, FuelMonitor.threaded(clock),
+                ExecutionMode.VIRTUAL.newExecutor(), 1);
+    }
+}
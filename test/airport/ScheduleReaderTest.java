@@ -0,0 +1,113 @@
+package airport;
+import com.sun.management.UnixOperatingSystemMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ScheduleReaderTest {
+    @TempDir
+    Path dir;
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("schedule.csv"), content);
+    }
+
+    private static List<ScheduledFlight> readAll(Path path) {
+        List<ScheduledFlight> flights = new ArrayList<>();
+        try (ScheduleReader reader = new ScheduleReader(path)) {
+            reader.forEachRemaining(flights::add);
+        }
+        return flights;
+    }
+
+    @Test
+    void readsFlightsSkippingHeaderCommentsAndBlankLines() throws IOException {
+        Path path = write(ScheduledFlight.HEADER + "\r\n"
+                + "# morning bank\r\n"
+                + "QF1,0,80,300,A380\r\n"
+                + "\r\n"
+                + "SQ2,1500,45,250,B777\n"
+                + "JL3,1500,10,120,B787");
+        assertEquals(List.of(
+                new ScheduledFlight("QF1", 0, 80, 300, "A380"),
+                new ScheduledFlight("SQ2", 1500, 45, 250, "B777"),
+                new ScheduledFlight("JL3", 1500, 10, 120, "B787")), readAll(path));
+    }
+
+    @Test
+    void minusOneLetsThePlanePickItsOwn() throws IOException {
+        Path path = write("QF1,0,-1,-1,A380\nSQ2,10,0," + ScheduledFlight.MAX_PASSENGERS + ",B777\n");
+        assertEquals(List.of(
+                new ScheduledFlight("QF1", 0, -1, -1, "A380"),
+                new ScheduledFlight("SQ2", 10, 0, ScheduledFlight.MAX_PASSENGERS, "B777")), readAll(path));
+    }
+
+    @Test
+    void readsPastManyBufferRefills() throws IOException {
+        StringBuilder csv = new StringBuilder(ScheduledFlight.HEADER).append('\n');
+        for (int i = 0; i < 20_000; i++) csv.append("F").append(i).append(',').append(i * 10L).append(",50,100,A320\n");
+        List<ScheduledFlight> flights = readAll(write(csv.toString()));
+        assertEquals(20_000, flights.size());
+        assertEquals(new ScheduledFlight("F19999", 199_990, 50, 100, "A320"), flights.get(19_999));
+    }
+
+    @Test
+    void growsTheBufferForALongLine() throws IOException {
+        String id = "X".repeat(200_000);
+        List<ScheduledFlight> flights = readAll(write(id + ",5,60,10,A320\nB,6,60,10,A320\n"));
+        assertEquals(id, flights.get(0).flightId());
+        assertEquals("B", flights.get(1).flightId());
+    }
+
+    // A bad first row fails in the constructor, which must not leave the file open
+    @Test
+    void badFirstRowClosesTheFile() throws IOException {
+        Path path = write("QF1,0,80\n");
+        assumeTrue(ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean);
+        UnixOperatingSystemMXBean os = (UnixOperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long before = os.getOpenFileDescriptorCount();
+        for (int i = 0; i < 100; i++) assertThrows(IllegalArgumentException.class, () -> new ScheduleReader(path));
+        assertTrue(os.getOpenFileDescriptorCount() - before < 100, "file descriptors leaked");
+    }
+
+    @Test
+    void emptyFileHasNoFlights() throws IOException {
+        try (ScheduleReader reader = new ScheduleReader(write(ScheduledFlight.HEADER + "\n"))) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void rejectsBadRowsWithTheirLineNumber() throws IOException {
+        assertBadRow("QF1,0,80,300\n", ":2: expected 5 fields");
+        assertBadRow("QF1,0,8x,300,A380\n", ":2: not a number");
+        assertBadRow("QF1,0,,300,A380\n", ":2: empty number");
+        assertBadRow("QF1,0,101,300,A380\n", ":2: fuel must be 0-100, or -1");
+        assertBadRow("QF1,0,-2,300,A380\n", ":2: fuel must be 0-100, or -1");
+        assertBadRow("QF1,0,80,32768,A380\n", ":2: passengers must be 0-32767, or -1");
+        assertBadRow("QF1,0,80,-,A380\n", ":2: empty number");
+        assertBadRow("QF1,0,80,12345678901234567890,A380\n", ":2: number too long");
+        assertBadRow("QF1,-5,80,300,A380\n", ":2: arrival -5 is before the previous flight's 0");
+        Path headerless = write("QF1,-5,80,300,A380\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> readAll(headerless));
+        assertTrue(e.getMessage().endsWith(":1: arrival -5 is before the previous flight's 0"), e.getMessage());
+        assertBadRow("QF1,500,80,300,A380\nQF2,400,80,300,A380\n", ":3: arrival 400 is before the previous flight's 500");
+    }
+
+    private void assertBadRow(String rows, String message) throws IOException {
+        Path path = write(ScheduledFlight.HEADER + "\n" + rows);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> readAll(path));
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+    }
+}